@@ -7,6 +7,8 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.Stack;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 
 @SuppressWarnings("unchecked")
 public class AVLTreeMap<K, V> implements MapSet<K, V>, Iterable<MapSet.KeyValuePair<K, V>> {
@@ -19,7 +21,7 @@ public class AVLTreeMap<K, V> implements MapSet<K, V>, Iterable<MapSet.KeyValueP
             super(key, value);
             left = null;
             right = null;
-            size = 0;
+            size = 1;
             height = 1;
         }
 
@@ -127,15 +129,52 @@ public class AVLTreeMap<K, V> implements MapSet<K, V>, Iterable<MapSet.KeyValueP
      * Add a key-value pair to the tree
      */
     public V put(K key, V val) {
-        V oldVal = null;
         if (val == null) {
             return null;
         }
-        if (containsKey(key)) {
-            oldVal = this.get(key);
+        Node<K, V> node = findNode(key);
+        if (node != null) {
+            V oldVal = node.getValue();
+            node.setValue(val);
+            return oldVal;
         }
         root = put(root, key, val);
-        return oldVal;
+        return null;
+    }
+
+    /*
+     * Compute a new value for a key. Keys that are already in the tree are
+     * updated in place; the tree is only walked again to insert or remove.
+     */
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        Node<K, V> node = findNode(key);
+        V newVal = remappingFunction.apply(key, node == null ? null : node.getValue());
+
+        if (node != null && newVal != null) {
+            node.setValue(newVal);
+        } else if (node != null) {
+            root = remove(root, key);
+        } else if (newVal != null) {
+            root = put(root, key, newVal);
+        }
+
+        return newVal;
+    }
+
+    /*
+     * Returns the node holding a key, or null if the key is not in the tree
+     */
+    private Node<K, V> findNode(K key) {
+        Node<K, V> curNode = root;
+        while (curNode != null) {
+            int cmp = comparator.compare(key, curNode.getKey());
+            if (cmp == 0) {
+                return curNode;
+            }
+            curNode = cmp < 0 ? curNode.left : curNode.right;
+        }
+        return null;
     }
 
     /*
@@ -143,9 +182,9 @@ public class AVLTreeMap<K, V> implements MapSet<K, V>, Iterable<MapSet.KeyValueP
      */
     private Node<K, V> put(Node<K, V> curNode, K key, V val) {
         if (curNode == null) {
-            return new Node<K, V>(key, val, 0, 1);
+            return new Node<K, V>(key, val, 1, 1);
         }
-        int cmp = ((Comparable<K>) key).compareTo(curNode.getKey());
+        int cmp = comparator.compare(key, curNode.getKey());
         if (cmp < 0) {
             curNode.left = put(curNode.left, key, val);
         } else if (cmp > 0) {
@@ -319,6 +358,68 @@ public class AVLTreeMap<K, V> implements MapSet<K, V>, Iterable<MapSet.KeyValueP
         return balance(curNode); // ensure that the node is balanced
     }
 
+    /*
+     * Returns the number of keys in the tree that are smaller than `key`, which
+     * is the index `key` has or would have in keySet()
+     */
+    public int rank(K key) {
+        int rank = 0;
+        Node<K, V> curNode = root;
+
+        while (curNode != null) {
+            int cmp = comparator.compare(key, curNode.getKey());
+            if (cmp < 0) {
+                curNode = curNode.left;
+            } else if (cmp > 0) {
+                rank += 1 + size(curNode.left);
+                curNode = curNode.right;
+            } else {
+                return rank + size(curNode.left);
+            }
+        }
+
+        return rank;
+    }
+
+    /*
+     * Returns the key at index `index` of keySet(), the key with exactly
+     * `index` smaller keys
+     */
+    public K select(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(
+                    "AVLTreeMap.select():: index " + index + " out of range for size " + size());
+        }
+
+        Node<K, V> curNode = root;
+        while (true) {
+            int leftSize = size(curNode.left);
+            if (index < leftSize) {
+                curNode = curNode.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                curNode = curNode.right;
+            } else {
+                return curNode.getKey();
+            }
+        }
+    }
+
+    /*
+     * Returns the number of keys from lo to hi, both included
+     */
+    public int countInRange(K lo, K hi) {
+        if (comparator.compare(lo, hi) > 0) {
+            return 0;
+        }
+
+        int count = rank(hi) - rank(lo);
+        if (findNode(hi) != null) {
+            count++;
+        }
+        return count;
+    }
+
     /*
      * Get the leftmost child of a tree
      */
@@ -469,6 +570,16 @@ public class AVLTreeMap<K, V> implements MapSet<K, V>, Iterable<MapSet.KeyValueP
         return output;
     }
 
+    /*
+     * Run an action on every pair in the tree, in order
+     */
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        for (KeyValuePair<K, V> curNode : this) {
+            action.accept(curNode.getKey(), curNode.getValue());
+        }
+    }
+
     /*
      * Get the max depth of a tree
      */
@@ -0,0 +1,96 @@
+/*
+ * Name: Michael Tenkorang
+ * Class Purpose: Working with the HashMaps and Binary Search Trees
+ */
+
+public class AVLTreeMapTests {
+    public static void avlTests() {
+        {
+            /*
+             * Test size(), keySet() and entrySet() count every key
+             */
+            // Setup
+            AVLTreeMap<String, Integer> map = new AVLTreeMap<>();
+            map.put("Dog", 21);
+            map.put("Bat", 12);
+            map.put("Sheep", 9);
+            map.put("Elephant", 67);
+            map.remove("Sheep");
+
+            // Verify
+            System.out.println(map.size() + " == 3");
+            System.out.println(map.keySet() + " == [Bat, Dog, Elephant]");
+            System.out.println(map.entrySet() + " == [<Bat -> 12>, <Dog -> 21>, <Elephant -> 67>]");
+
+            // Test
+            assert map.size() == 3 : "size() faulty";
+            assert map.keySet().toString().equals("[Bat, Dog, Elephant]") : "keySet() faulty";
+            assert map.entrySet().toString().equals("[<Bat -> 12>, <Dog -> 21>, <Elephant -> 67>]")
+                    : "entrySet() faulty";
+        }
+
+        {
+            /*
+             * Test rank() and select() methods
+             */
+            // Setup
+            AVLTreeMap<Integer, Integer> map = new AVLTreeMap<>();
+            for (int i = 0; i < 1000; i++) {
+                map.put(2 * i, i);
+            }
+            boolean selectFaulty = false;
+            try {
+                map.select(1000);
+            } catch (IndexOutOfBoundsException e) {
+                selectFaulty = true;
+            }
+
+            // Verify
+            System.out.println(map.rank(0) + " == 0");
+            System.out.println(map.rank(500) + " == 250");
+            System.out.println(map.rank(501) + " == 251");
+            System.out.println(map.rank(5000) + " == 1000");
+            System.out.println(map.select(0) + " == 0");
+            System.out.println(map.select(250) + " == 500");
+            System.out.println(map.select(999) + " == 1998");
+            System.out.println(selectFaulty + " == true");
+
+            // Test
+            assert map.rank(500) == 250 : "rank() faulty";
+            assert map.rank(501) == 251 : "rank() of a missing key faulty";
+            assert map.rank(5000) == 1000 : "rank() faulty";
+            assert map.select(250) == 500 : "select() faulty";
+            assert map.select(999) == 1998 : "select() faulty";
+            assert selectFaulty : "select() out of range not rejected";
+        }
+
+        {
+            /*
+             * Test countInRange() method
+             */
+            // Setup
+            AVLTreeMap<String, Integer> map = new AVLTreeMap<>();
+            map.put("apple", 1);
+            map.put("banana", 2);
+            map.put("cherry", 3);
+            map.put("date", 4);
+            map.put("fig", 5);
+
+            // Verify
+            System.out.println(map.countInRange("banana", "date") + " == 3");
+            System.out.println(map.countInRange("b", "e") + " == 3");
+            System.out.println(map.countInRange("apple", "zebra") + " == 5");
+            System.out.println(map.countInRange("date", "banana") + " == 0");
+
+            // Test
+            assert map.countInRange("banana", "date") == 3 : "countInRange() faulty";
+            assert map.countInRange("b", "e") == 3 : "countInRange() with missing ends faulty";
+            assert map.countInRange("apple", "zebra") == 5 : "countInRange() faulty";
+            assert map.countInRange("date", "banana") == 0 : "countInRange() with lo > hi faulty";
+        }
+    }
+
+    public static void main(String[] args) {
+        avlTests();
+    }
+}
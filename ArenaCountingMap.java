@@ -0,0 +1,618 @@
+/*
+ * Name: Michael Tenkorang
+ * Class Purpose: Working with the HashMaps and Binary Search Trees
+ */
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * A map from words to int counts that keeps no String per word. The UTF-8
+ * bytes of every word are stored back to back in one growable byte arena,
+ * each preceded by its length as a varint, and the table only holds the
+ * word's offset in the arena, its hash and its count in three int arrays.
+ * A five-letter word costs 6 bytes of arena plus about 17 bytes of table,
+ * against roughly 80-100 bytes for a String, its byte[] and a map node.
+ *
+ * Words can be counted straight from a range of bytes, so counting a file
+ * never creates a String at all. Strings are only created when asked for, by
+ * keySet(), entrySet(), forEach() and so on. The bytes of removed words stay
+ * in the arena until clear().
+ */
+public class ArenaCountingMap implements ByteCountingMapSet {
+
+    private byte[] arena;
+    private int arenaSize;
+    private int[] offsets;
+    private int[] hashes;
+    private int[] counts;
+    private int size;
+    private double maxLoadFactor;
+
+    public ArenaCountingMap(int initialCapacity, double maxLoadFactor) {
+        int capacity = 16;
+        while (capacity < initialCapacity) {
+            capacity <<= 1;
+        }
+        arena = new byte[capacity * 8];
+        arenaSize = 0;
+        offsets = newOffsets(capacity);
+        hashes = new int[capacity];
+        counts = new int[capacity];
+        size = 0;
+        this.maxLoadFactor = maxLoadFactor;
+    }
+
+    public ArenaCountingMap(int initialCapacity) {
+        this(initialCapacity, .7);
+    }
+
+    public ArenaCountingMap() {
+        this(16);
+    }
+
+    /*
+     * Offset table with every slot empty
+     */
+    private static int[] newOffsets(int capacity) {
+        int[] offsets = new int[capacity];
+        Arrays.fill(offsets, -1);
+        return offsets;
+    }
+
+    /*
+     * Get the count of the word in a range of bytes
+     */
+    @Override
+    public int getCount(ByteBuffer buffer, int start, int length) {
+        int index = slot(buffer, start, length, hash(buffer, start, length));
+        return offsets[index] < 0 ? 0 : counts[index];
+    }
+
+    /*
+     * Add to the count of the word in a range of bytes
+     */
+    @Override
+    public int add(ByteBuffer buffer, int start, int length, int delta) {
+        int hash = hash(buffer, start, length);
+        int index = slot(buffer, start, length, hash);
+
+        if (offsets[index] >= 0) {
+            counts[index] += delta;
+            return counts[index];
+        }
+
+        insert(index, storeBytes(buffer, start, length), hash, delta);
+        return delta;
+    }
+
+    /*
+     * Add to the count of the word in a range of bytes if it is already in the map
+     */
+    @Override
+    public int addIfPresent(ByteBuffer buffer, int start, int length, int delta) {
+        int index = slot(buffer, start, length, hash(buffer, start, length));
+
+        if (offsets[index] < 0) {
+            return 0;
+        }
+
+        counts[index] += delta;
+        return counts[index];
+    }
+
+    /*
+     * Get the count of a word
+     */
+    @Override
+    public int getCount(String key) {
+        int index = slot(key);
+        return offsets[index] < 0 ? 0 : counts[index];
+    }
+
+    /*
+     * Add to the count of a word
+     */
+    @Override
+    public int add(String key, int delta) {
+        int index = slot(key);
+
+        if (offsets[index] >= 0) {
+            counts[index] += delta;
+            return counts[index];
+        }
+
+        insert(index, storeString(key), hash(key), delta);
+        return delta;
+    }
+
+    /*
+     * Add to the count of a word that is already in the map
+     */
+    @Override
+    public int addIfPresent(String key, int delta) {
+        int index = slot(key);
+
+        if (offsets[index] < 0) {
+            return 0;
+        }
+
+        counts[index] += delta;
+        return counts[index];
+    }
+
+    /*
+     * Adds pair to the map
+     */
+    @Override
+    public Integer put(String key, Integer value) {
+        if (value == null) {
+            return null;
+        }
+
+        int index = slot(key);
+
+        if (offsets[index] >= 0) {
+            int oldVal = counts[index];
+            counts[index] = value;
+            return oldVal;
+        }
+
+        insert(index, storeString(key), hash(key), value);
+        return null;
+    }
+
+    /*
+     * Compute a new count for a word, finding its slot only once
+     */
+    @Override
+    public Integer compute(String key, BiFunction<? super String, ? super Integer, ? extends Integer> remappingFunction) {
+        int index = slot(key);
+
+        if (offsets[index] >= 0) {
+            Integer newVal = remappingFunction.apply(key, counts[index]);
+            if (newVal == null) {
+                removeSlot(index);
+            } else {
+                counts[index] = newVal;
+            }
+            return newVal;
+        }
+
+        Integer newVal = remappingFunction.apply(key, null);
+        if (newVal != null) {
+            insert(index, storeString(key), hash(key), newVal);
+        }
+        return newVal;
+    }
+
+    /*
+     * Check if the map contains a particular word
+     */
+    @Override
+    public boolean containsKey(String key) {
+        return offsets[slot(key)] >= 0;
+    }
+
+    /*
+     * Get the count of a particular word
+     */
+    @Override
+    public Integer get(String key) {
+        int index = slot(key);
+        return offsets[index] < 0 ? null : counts[index];
+    }
+
+    /*
+     * Remove a word from the map. Its bytes stay in the arena.
+     */
+    @Override
+    public Integer remove(String key) {
+        int index = slot(key);
+
+        if (offsets[index] < 0) {
+            return null;
+        }
+
+        int oldVal = counts[index];
+        removeSlot(index);
+        return oldVal;
+    }
+
+    /*
+     * Returns the number of bytes of arena in use
+     */
+    public int arenaSize() {
+        return arenaSize;
+    }
+
+    /*
+     * Offer every word to a TopKHeap, only creating Strings for the words
+     * whose count could make it into the heap
+     */
+    @Override
+    public void offerTo(TopKHeap heap) {
+        for (int i = 0; i < offsets.length; i++) {
+            if (offsets[i] >= 0 && heap.accepts(counts[i])) {
+                heap.offer(keyAt(i), counts[i]);
+            }
+        }
+    }
+
+    /*
+     * Returns a list of the words in the map
+     */
+    @Override
+    public ArrayList<String> keySet() {
+        ArrayList<String> output = new ArrayList<>();
+        for (int i = 0; i < offsets.length; i++) {
+            if (offsets[i] >= 0) {
+                output.add(keyAt(i));
+            }
+        }
+        return output;
+    }
+
+    /*
+     * Returns a list of the counts in the map
+     */
+    @Override
+    public ArrayList<Integer> values() {
+        ArrayList<Integer> output = new ArrayList<>();
+        for (int i = 0; i < offsets.length; i++) {
+            if (offsets[i] >= 0) {
+                output.add(counts[i]);
+            }
+        }
+        return output;
+    }
+
+    /*
+     * Returns the list of all the pairs in the map
+     */
+    @Override
+    public ArrayList<KeyValuePair<String, Integer>> entrySet() {
+        ArrayList<KeyValuePair<String, Integer>> output = new ArrayList<>();
+        for (int i = 0; i < offsets.length; i++) {
+            if (offsets[i] >= 0) {
+                output.add(new KeyValuePair<String, Integer>(keyAt(i), counts[i]));
+            }
+        }
+        return output;
+    }
+
+    /*
+     * Run an action on every pair in the map
+     */
+    @Override
+    public void forEach(BiConsumer<? super String, ? super Integer> action) {
+        for (int i = 0; i < offsets.length; i++) {
+            if (offsets[i] >= 0) {
+                action.accept(keyAt(i), counts[i]);
+            }
+        }
+    }
+
+    /*
+     * Run an action on every word in the map with its count
+     */
+    @Override
+    public void forEachCount(ObjIntConsumer<? super String> action) {
+        for (int i = 0; i < offsets.length; i++) {
+            if (offsets[i] >= 0) {
+                action.accept(keyAt(i), counts[i]);
+            }
+        }
+    }
+
+    /*
+     * Returns the number of words in the map
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /*
+     * Reset the map and the arena
+     */
+    @Override
+    public void clear() {
+        arena = new byte[128];
+        arenaSize = 0;
+        offsets = newOffsets(16);
+        hashes = new int[16];
+        counts = new int[16];
+        size = 0;
+    }
+
+    /*
+     * Get the longest number of slots probed to find a word
+     */
+    @Override
+    public int maxDepth() {
+        int mask = offsets.length - 1;
+        int maxDepth = 0;
+
+        for (int i = 0; i < offsets.length; i++) {
+            if (offsets[i] >= 0) {
+                int depth = ((i - (mix(hashes[i]) & mask)) & mask) + 1;
+                if (depth > maxDepth) {
+                    maxDepth = depth;
+                }
+            }
+        }
+
+        return maxDepth;
+    }
+
+    /*
+     * String representation of the map
+     */
+    public String toString() {
+        String output = "\n";
+
+        for (int i = 0; i < offsets.length; i++) {
+            if (offsets[i] >= 0) {
+                output += "<" + keyAt(i) + " -> " + counts[i] + ">\n";
+            }
+        }
+
+        return output;
+    }
+
+    /*
+     * Create the String of the word in a slot
+     */
+    private String keyAt(int index) {
+        int offset = offsets[index];
+        int length = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = arena[offset++];
+            length |= (b & 0x7f) << shift;
+            shift += 7;
+        } while (b < 0);
+        return new String(arena, offset, length, StandardCharsets.UTF_8);
+    }
+
+    /*
+     * Returns the slot holding a word, or the empty slot where it would go.
+     * ASCII words are compared a character at a time; anything else is
+     * compared by its UTF-8 bytes.
+     */
+    private int slot(String key) {
+        for (int i = 0; i < key.length(); i++) {
+            if (key.charAt(i) >= 128) {
+                byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                return slot(buffer, 0, bytes.length, hash(buffer, 0, bytes.length));
+            }
+        }
+
+        int hash = key.hashCode();
+        int mask = offsets.length - 1;
+        int index = mix(hash) & mask;
+
+        while (offsets[index] >= 0) {
+            if (hashes[index] == hash && matches(index, key)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+
+        return index;
+    }
+
+    /*
+     * Returns the slot holding the word in a range of bytes, or the empty slot
+     * where it would go
+     */
+    private int slot(ByteBuffer buffer, int start, int length, int hash) {
+        int mask = offsets.length - 1;
+        int index = mix(hash) & mask;
+
+        while (offsets[index] >= 0) {
+            if (hashes[index] == hash && matches(index, buffer, start, length)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+
+        return index;
+    }
+
+    /*
+     * Check if the word in a slot is an ASCII String
+     */
+    private boolean matches(int index, String key) {
+        if (key.length() >= 128) {
+            // the length takes more than one byte, which is rare enough to not be worth a fast path
+            return keyAt(index).equals(key);
+        }
+
+        int offset = offsets[index];
+        if (arena[offset] != key.length()) {
+            return false;
+        }
+        offset++;
+        for (int i = 0; i < key.length(); i++) {
+            if (arena[offset + i] != key.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Check if the word in a slot is the same as a range of bytes
+     */
+    private boolean matches(int index, ByteBuffer buffer, int start, int length) {
+        int offset = offsets[index];
+        int stored = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = arena[offset++];
+            stored |= (b & 0x7f) << shift;
+            shift += 7;
+        } while (b < 0);
+
+        if (stored != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (arena[offset + i] != buffer.get(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Hash of a range of bytes. For ASCII this is the same as String.hashCode().
+     */
+    private static int hash(ByteBuffer buffer, int start, int length) {
+        int hash = 0;
+        for (int i = start; i < start + length; i++) {
+            hash = 31 * hash + (buffer.get(i) & 0xff);
+        }
+        return hash;
+    }
+
+    /*
+     * Hash of a word, the same as hash() of its UTF-8 bytes
+     */
+    private static int hash(String key) {
+        for (int i = 0; i < key.length(); i++) {
+            if (key.charAt(i) >= 128) {
+                byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+                return hash(ByteBuffer.wrap(bytes), 0, bytes.length);
+            }
+        }
+        return key.hashCode();
+    }
+
+    /*
+     * Spread the bits of the hash so the low bits can index the table
+     */
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /*
+     * Copy a word to the end of the arena and return its offset
+     */
+    private int storeString(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        return storeBytes(ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+
+    /*
+     * Copy a range of bytes to the end of the arena, after its length, and
+     * return its offset
+     */
+    private int storeBytes(ByteBuffer buffer, int start, int length) {
+        ensureArena(length + 5);
+        int offset = arenaSize;
+
+        int value = length;
+        while ((value & ~0x7f) != 0) {
+            arena[arenaSize++] = (byte) ((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        arena[arenaSize++] = (byte) value;
+
+        for (int i = 0; i < length; i++) {
+            arena[arenaSize++] = buffer.get(start + i);
+        }
+        return offset;
+    }
+
+    /*
+     * Grow the arena to fit n more bytes
+     */
+    private void ensureArena(int n) {
+        if (arenaSize + n <= arena.length) {
+            return;
+        }
+        long newLength = Math.max((long) arena.length * 2, (long) arenaSize + n);
+        if (newLength > Integer.MAX_VALUE - 8) {
+            if ((long) arenaSize + n > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("ArenaCountingMap:: arena is full");
+            }
+            newLength = Integer.MAX_VALUE - 8;
+        }
+        arena = Arrays.copyOf(arena, (int) newLength);
+    }
+
+    /*
+     * Put a word stored at an arena offset in an empty slot and grow the
+     * table if needed
+     */
+    private void insert(int index, int offset, int hash, int count) {
+        offsets[index] = offset;
+        hashes[index] = hash;
+        counts[index] = count;
+        size++;
+        if (size > maxLoadFactor * offsets.length) {
+            resize(offsets.length * 2);
+        }
+    }
+
+    /*
+     * Empty a slot and shift back the words after it that would no longer be
+     * found, so lookups can keep stopping at the first empty slot
+     */
+    private void removeSlot(int index) {
+        int mask = offsets.length - 1;
+        int hole = index;
+        int next = (hole + 1) & mask;
+
+        while (offsets[next] >= 0) {
+            int home = mix(hashes[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                offsets[hole] = offsets[next];
+                hashes[hole] = hashes[next];
+                counts[hole] = counts[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+
+        offsets[hole] = -1;
+        counts[hole] = 0;
+        size--;
+    }
+
+    /*
+     * Resize the table. The arena is not touched.
+     */
+    private void resize(int newCapacity) {
+        int[] oldOffsets = offsets;
+        int[] oldHashes = hashes;
+        int[] oldCounts = counts;
+        offsets = newOffsets(newCapacity);
+        hashes = new int[newCapacity];
+        counts = new int[newCapacity];
+        int mask = newCapacity - 1;
+
+        for (int i = 0; i < oldOffsets.length; i++) {
+            if (oldOffsets[i] >= 0) {
+                int index = mix(oldHashes[i]) & mask;
+                while (offsets[index] >= 0) {
+                    index = (index + 1) & mask;
+                }
+                offsets[index] = oldOffsets[i];
+                hashes[index] = oldHashes[i];
+                counts[index] = oldCounts[i];
+            }
+        }
+    }
+}
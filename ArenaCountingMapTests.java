@@ -0,0 +1,111 @@
+/*
+ * Name: Michael Tenkorang
+ * Class Purpose: Working with the HashMaps and Binary Search Trees
+ */
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class ArenaCountingMapTests {
+
+    public static void arenaCountingMapTests() {
+        {
+            /*
+             * Test constructor and size() method
+             */
+            // Setup
+            ArenaCountingMap map = new ArenaCountingMap();
+
+            // Verify
+            System.out.println(map.size() + " == 0");
+
+            // Test
+            assert map.size() == 0;
+        }
+
+        {
+            /*
+             * Test counting from bytes and from Strings finds the same words
+             */
+            // Setup
+            ArenaCountingMap map = new ArenaCountingMap();
+            ByteBuffer bytes = ByteBuffer.wrap("xx Michael Professor".getBytes(StandardCharsets.US_ASCII));
+            map.add(bytes, 3, 7, 1);
+            map.add("Michael", 1);
+            int missing = map.addIfPresent(bytes, 11, 9, 1);
+            map.add("Professor", 5);
+            int present = map.addIfPresent(bytes, 11, 9, 1);
+
+            // Verify
+            System.out.println(map.getCount("Michael") + " == 2");
+            System.out.println(map.getCount(bytes, 3, 7) + " == 2");
+            System.out.println(missing + " == 0");
+            System.out.println(present + " == 6");
+            System.out.println(map.keySet().size() + " == 2");
+
+            // Test
+            assert map.getCount("Michael") == 2 : "add() faulty";
+            assert map.getCount(bytes, 3, 7) == 2 : "getCount() from bytes faulty";
+            assert missing == 0 : "addIfPresent() adds new keys";
+            assert present == 6 : "addIfPresent() faulty";
+            assert map.keySet().size() == 2 : "keySet() faulty";
+        }
+
+        {
+            /*
+             * Test put(), get() and remove() after resizing, with non-ASCII and
+             * long words
+             */
+            // Setup
+            ArenaCountingMap map = new ArenaCountingMap();
+            String longWord = "a".repeat(300);
+            for (int i = 0; i < 1000; i++) {
+                map.put("word" + i, i);
+            }
+            for (int i = 0; i < 1000; i += 2) {
+                map.remove("word" + i);
+            }
+            map.put("caf\u00e9", 7);
+            map.put(longWord, 3);
+
+            // Verify
+            System.out.println(map.size() + " == 502");
+            System.out.println(map.get("word501") + " == 501");
+            System.out.println(map.get("word500") + " == null");
+            System.out.println(map.get("caf\u00e9") + " == 7");
+            System.out.println(map.get(longWord) + " == 3");
+
+            // Test
+            assert map.size() == 502 : "remove() faulty";
+            assert map.get("word501") == 501 : "remove() loses other keys";
+            assert map.get("word500") == null : "remove() does not remove item from map";
+            assert map.get("caf\u00e9") == 7 : "non-ASCII words faulty";
+            assert map.get(longWord) == 3 : "long words faulty";
+            assert map.keySet().contains("caf\u00e9") : "keySet() faulty";
+        }
+
+        {
+            /*
+             * Test clear() and maxDepth() methods
+             */
+            // Setup
+            ArenaCountingMap map = new ArenaCountingMap();
+            map.add("Dog", 21);
+            map.add("Bat", 12);
+            map.clear();
+
+            // Verify
+            System.out.println(map.size() + " == 0");
+            System.out.println(map.maxDepth() + " == 0");
+            System.out.println(map.arenaSize() + " == 0");
+
+            // Test
+            assert map.values().size() == 0 : "clear() faulty";
+            assert map.arenaSize() == 0 : "clear() faulty";
+        }
+    }
+
+    public static void main(String[] args) {
+        arenaCountingMapTests();
+    }
+}
@@ -7,6 +7,8 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.Stack;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 
 @SuppressWarnings("unchecked")
 public class BSTMap<K, V> implements MapSet<K, V>, Iterable<MapSet.KeyValuePair<K, V>> {
@@ -133,6 +135,53 @@ public class BSTMap<K, V> implements MapSet<K, V>, Iterable<MapSet.KeyValuePair<
         }
     }
 
+    /*
+     * Compute a new value for a key, walking down the tree only once
+     */
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        Node<K, V> parent = null;
+        Node<K, V> curNode = root;
+        int cmp = 0;
+
+        while (curNode != null) {
+            cmp = comparator.compare(key, curNode.getKey());
+            if (cmp == 0) {
+                break;
+            }
+            parent = curNode;
+            curNode = cmp < 0 ? curNode.left : curNode.right;
+        }
+
+        if (curNode != null) {
+            V newVal = remappingFunction.apply(key, curNode.getValue());
+            if (newVal != null) {
+                curNode.setValue(newVal);
+            } else {
+                handleReplacement(curNode, parent);
+                size--;
+            }
+            return newVal;
+        }
+
+        V newVal = remappingFunction.apply(key, null);
+        if (newVal == null) {
+            return null;
+        }
+
+        Node<K, V> newNode = new Node<>(key, newVal);
+        if (parent == null) {
+            root = newNode;
+        } else if (cmp < 0) {
+            parent.left = newNode;
+        } else {
+            parent.right = newNode;
+        }
+        size++;
+
+        return newVal;
+    }
+
     /*
      * Check if a tree contains key
      */
@@ -398,6 +447,16 @@ public class BSTMap<K, V> implements MapSet<K, V>, Iterable<MapSet.KeyValuePair<
         return output;
     }
 
+    /*
+     * Run an action on every pair in the tree, in order
+     */
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        for (KeyValuePair<K, V> curNode : this) {
+            action.accept(curNode.getKey(), curNode.getValue());
+        }
+    }
+
     /*
      * Return the size of the tree
      */
@@ -136,7 +136,39 @@ public class BSTMapTests {
         }
     }
 
+    /*
+     * Tests of compute() and merge(), kept apart so they run before the older
+     * tests above stop at their first failed assert
+     */
+    public static void computeTests() {
+        {
+            /*
+             * Test compute() and merge() methods
+             */
+
+            // Setup
+            BSTMap<String, Integer> map = new BSTMap<>();
+            map.put("Dog", 21);
+            map.put("Bat", 12);
+            int merged = map.merge("Dog", 1, Integer::sum);
+            int computed = map.compute("Cat", (key, value) -> value == null ? 1 : value + 1);
+            Integer removed = map.compute("Bat", (key, value) -> null);
+
+            // Verify
+            System.out.println(merged + " == 22");
+            System.out.println(computed + " == 1");
+            System.out.println(removed + " == null");
+            System.out.println(map.size() + " == 2");
+
+            // Test
+            assert merged == 22 : "merge() faulty";
+            assert computed == 1 && map.get("Cat") == 1 : "compute() does not add item to map";
+            assert removed == null && !map.containsKey("Bat") : "compute() does not remove item from map";
+        }
+    }
+
     public static void main(String[] args) {
+        computeTests();
         bstTests();
     }
 }
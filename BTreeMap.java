@@ -0,0 +1,615 @@
+/*
+ * Name: Michael Tenkorang
+ * Class Purpose: Working with the HashMaps and Binary Search Trees
+ */
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+/**
+ * An ordered map kept in a B+ tree. Every node holds up to `order` keys in a
+ * sorted array and is searched with a binary search, so a lookup visits only
+ * a few wide nodes instead of one small node per level like BSTMap and
+ * AVLTreeMap. All the values are in the leaves, and the leaves are linked in
+ * key order, so walking the map in order is a walk along the leaf arrays.
+ *
+ * The tree stays balanced whatever order the keys arrive in: a node that gets
+ * too full is split in two, and a node that gets less than half full borrows
+ * a key from a sibling or is merged with it.
+ */
+@SuppressWarnings("unchecked")
+public class BTreeMap<K, V> implements MapSet<K, V>, Iterable<MapSet.KeyValuePair<K, V>> {
+
+    private static final int DEFAULT_ORDER = 64;
+
+    private static class Node<K> {
+        K[] keys;
+        int count;
+
+        Node(int order) {
+            // one spare slot so a node can overflow before it is split
+            keys = (K[]) new Object[order + 1];
+            count = 0;
+        }
+    }
+
+    private static class Leaf<K, V> extends Node<K> {
+        V[] values;
+        Leaf<K, V> next;
+
+        Leaf(int order) {
+            super(order);
+            values = (V[]) new Object[order + 1];
+            next = null;
+        }
+    }
+
+    /*
+     * Holds count keys and count + 1 children. keys[i] is the smallest key of
+     * the subtree of children[i + 1].
+     */
+    private static class Internal<K> extends Node<K> {
+        Node<K>[] children;
+
+        Internal(int order) {
+            super(order);
+            children = (Node<K>[]) new Node<?>[order + 2];
+        }
+    }
+
+    private Node<K> root;
+    private Comparator<K> comparator;
+    private int order;
+    private int minCount;
+    private int size;
+
+    // set by the recursive helpers of put() and remove()
+    private K splitKey;
+    private V oldValue;
+
+    public BTreeMap(int order, Comparator<K> comparator) {
+        if (order < 4) {
+            throw new IllegalArgumentException("BTreeMap:: order must be at least 4");
+        }
+        this.order = order;
+        this.minCount = order / 2;
+        if (comparator != null) {
+            this.comparator = comparator;
+        } else {
+            this.comparator = new Comparator<K>() {
+
+                @Override
+                public int compare(K o1, K o2) {
+                    return ((Comparable<K>) o1).compareTo(o2);
+                }
+
+            };
+        }
+        root = new Leaf<K, V>(order);
+        size = 0;
+    }
+
+    public BTreeMap(Comparator<K> comparator) {
+        this(DEFAULT_ORDER, comparator);
+    }
+
+    public BTreeMap() {
+        this(null);
+    }
+
+    /*
+     * Binary search for a key in the first `count` keys of a node. Returns its
+     * index, or -(insertion point) - 1 if it is not there.
+     */
+    private int search(Node<K> node, K key) {
+        int low = 0;
+        int high = node.count - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = comparator.compare(node.keys[mid], key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+
+        return -(low + 1);
+    }
+
+    /*
+     * Index of the child of an internal node whose subtree could hold a key
+     */
+    private int childIndex(Internal<K> node, K key) {
+        int index = search(node, key);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    /*
+     * Returns the leaf whose range holds a key
+     */
+    private Leaf<K, V> findLeaf(K key) {
+        Node<K> node = root;
+        while (node instanceof Internal) {
+            Internal<K> internal = (Internal<K>) node;
+            node = internal.children[childIndex(internal, key)];
+        }
+        return (Leaf<K, V>) node;
+    }
+
+    /*
+     * Returns the leftmost leaf
+     */
+    private Leaf<K, V> firstLeaf() {
+        Node<K> node = root;
+        while (node instanceof Internal) {
+            node = ((Internal<K>) node).children[0];
+        }
+        return (Leaf<K, V>) node;
+    }
+
+    /*
+     * Add a key-value pair to the tree
+     */
+    @Override
+    public V put(K key, V value) {
+        if (value == null) {
+            return null;
+        }
+
+        oldValue = null;
+        Node<K> right = put(root, key, value);
+        if (right != null) {
+            Internal<K> newRoot = new Internal<K>(order);
+            newRoot.keys[0] = splitKey;
+            newRoot.children[0] = root;
+            newRoot.children[1] = right;
+            newRoot.count = 1;
+            root = newRoot;
+        }
+
+        V output = oldValue;
+        oldValue = null;
+        splitKey = null;
+        return output;
+    }
+
+    /*
+     * Helper method for the put method. Returns the new right half if the node
+     * was split, with its smallest key in splitKey, or null.
+     */
+    private Node<K> put(Node<K> node, K key, V value) {
+        if (node instanceof Leaf) {
+            Leaf<K, V> leaf = (Leaf<K, V>) node;
+            int index = search(leaf, key);
+            if (index >= 0) {
+                oldValue = leaf.values[index];
+                leaf.values[index] = value;
+                return null;
+            }
+
+            index = -index - 1;
+            System.arraycopy(leaf.keys, index, leaf.keys, index + 1, leaf.count - index);
+            System.arraycopy(leaf.values, index, leaf.values, index + 1, leaf.count - index);
+            leaf.keys[index] = key;
+            leaf.values[index] = value;
+            leaf.count++;
+            size++;
+
+            return leaf.count > order ? splitLeaf(leaf) : null;
+        }
+
+        Internal<K> internal = (Internal<K>) node;
+        int index = childIndex(internal, key);
+        Node<K> right = put(internal.children[index], key, value);
+        if (right == null) {
+            return null;
+        }
+
+        System.arraycopy(internal.keys, index, internal.keys, index + 1, internal.count - index);
+        System.arraycopy(internal.children, index + 1, internal.children, index + 2, internal.count - index);
+        internal.keys[index] = splitKey;
+        internal.children[index + 1] = right;
+        internal.count++;
+
+        return internal.count > order ? splitInternal(internal) : null;
+    }
+
+    /*
+     * Move the upper half of an overfull leaf into a new leaf after it
+     */
+    private Leaf<K, V> splitLeaf(Leaf<K, V> leaf) {
+        Leaf<K, V> right = new Leaf<K, V>(order);
+        int keep = leaf.count / 2;
+        right.count = leaf.count - keep;
+        System.arraycopy(leaf.keys, keep, right.keys, 0, right.count);
+        System.arraycopy(leaf.values, keep, right.values, 0, right.count);
+        clear(leaf, keep, leaf.count);
+        leaf.count = keep;
+
+        right.next = leaf.next;
+        leaf.next = right;
+        splitKey = right.keys[0];
+        return right;
+    }
+
+    /*
+     * Move the upper half of an overfull internal node into a new node, moving
+     * the middle key up to the parent
+     */
+    private Internal<K> splitInternal(Internal<K> node) {
+        Internal<K> right = new Internal<K>(order);
+        int middle = node.count / 2;
+        right.count = node.count - middle - 1;
+        System.arraycopy(node.keys, middle + 1, right.keys, 0, right.count);
+        System.arraycopy(node.children, middle + 1, right.children, 0, right.count + 1);
+        splitKey = node.keys[middle];
+
+        for (int i = middle; i < node.count; i++) {
+            node.keys[i] = null;
+            node.children[i + 1] = null;
+        }
+        node.count = middle;
+        return right;
+    }
+
+    /*
+     * Null out the keys and values of a leaf from `from` to `to`, so they can
+     * be garbage collected
+     */
+    private void clear(Leaf<K, V> leaf, int from, int to) {
+        for (int i = from; i < to; i++) {
+            leaf.keys[i] = null;
+            leaf.values[i] = null;
+        }
+    }
+
+    /*
+     * Compute a new value for a key. Keys that are already in the tree are
+     * updated in place; the tree is only walked again to insert or remove.
+     */
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        Leaf<K, V> leaf = findLeaf(key);
+        int index = search(leaf, key);
+
+        if (index >= 0) {
+            V newVal = remappingFunction.apply(key, leaf.values[index]);
+            if (newVal == null) {
+                remove(key);
+            } else {
+                leaf.values[index] = newVal;
+            }
+            return newVal;
+        }
+
+        V newVal = remappingFunction.apply(key, null);
+        if (newVal != null) {
+            put(key, newVal);
+        }
+        return newVal;
+    }
+
+    /*
+     * Check if the tree contains a particular key
+     */
+    @Override
+    public boolean containsKey(K key) {
+        return search(findLeaf(key), key) >= 0;
+    }
+
+    /*
+     * Get the value of a particular key
+     */
+    @Override
+    public V get(K key) {
+        Leaf<K, V> leaf = findLeaf(key);
+        int index = search(leaf, key);
+        return index >= 0 ? leaf.values[index] : null;
+    }
+
+    /*
+     * Remove a key from the tree
+     */
+    @Override
+    public V remove(K key) {
+        oldValue = null;
+        remove(root, key);
+
+        if (root instanceof Internal && root.count == 0) {
+            root = ((Internal<K>) root).children[0];
+        }
+
+        V output = oldValue;
+        oldValue = null;
+        return output;
+    }
+
+    /*
+     * Helper method for the remove method
+     */
+    private void remove(Node<K> node, K key) {
+        if (node instanceof Leaf) {
+            Leaf<K, V> leaf = (Leaf<K, V>) node;
+            int index = search(leaf, key);
+            if (index < 0) {
+                return;
+            }
+
+            oldValue = leaf.values[index];
+            System.arraycopy(leaf.keys, index + 1, leaf.keys, index, leaf.count - index - 1);
+            System.arraycopy(leaf.values, index + 1, leaf.values, index, leaf.count - index - 1);
+            leaf.count--;
+            clear(leaf, leaf.count, leaf.count + 1);
+            size--;
+            return;
+        }
+
+        Internal<K> internal = (Internal<K>) node;
+        int index = childIndex(internal, key);
+        Node<K> child = internal.children[index];
+        remove(child, key);
+
+        if (child.count < minCount) {
+            rebalance(internal, index);
+        }
+    }
+
+    /*
+     * Fix a child that is less than half full, by borrowing a key from a
+     * sibling that has one to spare or else merging with a sibling
+     */
+    private void rebalance(Internal<K> parent, int index) {
+        Node<K> left = index > 0 ? parent.children[index - 1] : null;
+        Node<K> right = index < parent.count ? parent.children[index + 1] : null;
+
+        if (left != null && left.count > minCount) {
+            borrowFromLeft(parent, index);
+        } else if (right != null && right.count > minCount) {
+            borrowFromRight(parent, index);
+        } else if (left != null) {
+            merge(parent, index - 1);
+        } else if (right != null) {
+            merge(parent, index);
+        }
+    }
+
+    /*
+     * Move the last key of the left sibling to the front of a child
+     */
+    private void borrowFromLeft(Internal<K> parent, int index) {
+        Node<K> child = parent.children[index];
+        Node<K> left = parent.children[index - 1];
+
+        System.arraycopy(child.keys, 0, child.keys, 1, child.count);
+        if (child instanceof Leaf) {
+            Leaf<K, V> leaf = (Leaf<K, V>) child;
+            Leaf<K, V> leftLeaf = (Leaf<K, V>) left;
+            System.arraycopy(leaf.values, 0, leaf.values, 1, leaf.count);
+            leaf.keys[0] = leftLeaf.keys[leftLeaf.count - 1];
+            leaf.values[0] = leftLeaf.values[leftLeaf.count - 1];
+            clear(leftLeaf, leftLeaf.count - 1, leftLeaf.count);
+            parent.keys[index - 1] = leaf.keys[0];
+        } else {
+            Internal<K> internal = (Internal<K>) child;
+            Internal<K> leftInternal = (Internal<K>) left;
+            System.arraycopy(internal.children, 0, internal.children, 1, internal.count + 1);
+            internal.keys[0] = parent.keys[index - 1];
+            internal.children[0] = leftInternal.children[leftInternal.count];
+            parent.keys[index - 1] = leftInternal.keys[leftInternal.count - 1];
+            leftInternal.keys[leftInternal.count - 1] = null;
+            leftInternal.children[leftInternal.count] = null;
+        }
+        left.count--;
+        child.count++;
+    }
+
+    /*
+     * Move the first key of the right sibling to the end of a child
+     */
+    private void borrowFromRight(Internal<K> parent, int index) {
+        Node<K> child = parent.children[index];
+        Node<K> right = parent.children[index + 1];
+
+        if (child instanceof Leaf) {
+            Leaf<K, V> leaf = (Leaf<K, V>) child;
+            Leaf<K, V> rightLeaf = (Leaf<K, V>) right;
+            leaf.keys[leaf.count] = rightLeaf.keys[0];
+            leaf.values[leaf.count] = rightLeaf.values[0];
+            System.arraycopy(rightLeaf.keys, 1, rightLeaf.keys, 0, rightLeaf.count - 1);
+            System.arraycopy(rightLeaf.values, 1, rightLeaf.values, 0, rightLeaf.count - 1);
+            clear(rightLeaf, rightLeaf.count - 1, rightLeaf.count);
+            parent.keys[index] = rightLeaf.keys[0];
+        } else {
+            Internal<K> internal = (Internal<K>) child;
+            Internal<K> rightInternal = (Internal<K>) right;
+            internal.keys[internal.count] = parent.keys[index];
+            internal.children[internal.count + 1] = rightInternal.children[0];
+            parent.keys[index] = rightInternal.keys[0];
+            System.arraycopy(rightInternal.keys, 1, rightInternal.keys, 0, rightInternal.count - 1);
+            System.arraycopy(rightInternal.children, 1, rightInternal.children, 0, rightInternal.count);
+            rightInternal.keys[rightInternal.count - 1] = null;
+            rightInternal.children[rightInternal.count] = null;
+        }
+        right.count--;
+        child.count++;
+    }
+
+    /*
+     * Merge children[index + 1] of a node into children[index]
+     */
+    private void merge(Internal<K> parent, int index) {
+        Node<K> left = parent.children[index];
+        Node<K> right = parent.children[index + 1];
+
+        if (left instanceof Leaf) {
+            Leaf<K, V> leftLeaf = (Leaf<K, V>) left;
+            Leaf<K, V> rightLeaf = (Leaf<K, V>) right;
+            System.arraycopy(rightLeaf.keys, 0, leftLeaf.keys, leftLeaf.count, rightLeaf.count);
+            System.arraycopy(rightLeaf.values, 0, leftLeaf.values, leftLeaf.count, rightLeaf.count);
+            leftLeaf.count += rightLeaf.count;
+            leftLeaf.next = rightLeaf.next;
+        } else {
+            Internal<K> leftInternal = (Internal<K>) left;
+            Internal<K> rightInternal = (Internal<K>) right;
+            leftInternal.keys[leftInternal.count] = parent.keys[index];
+            System.arraycopy(rightInternal.keys, 0, leftInternal.keys, leftInternal.count + 1, rightInternal.count);
+            System.arraycopy(rightInternal.children, 0, leftInternal.children, leftInternal.count + 1,
+                    rightInternal.count + 1);
+            leftInternal.count += rightInternal.count + 1;
+        }
+
+        System.arraycopy(parent.keys, index + 1, parent.keys, index, parent.count - index - 1);
+        System.arraycopy(parent.children, index + 2, parent.children, index + 1, parent.count - index - 1);
+        parent.count--;
+        parent.keys[parent.count] = null;
+        parent.children[parent.count + 1] = null;
+    }
+
+    @Override
+    public Iterator<KeyValuePair<K, V>> iterator() {
+        return new LeafIterator();
+    }
+
+    /*
+     * Walks the leaves from left to right
+     */
+    private class LeafIterator implements Iterator<KeyValuePair<K, V>> {
+
+        private Leaf<K, V> leaf;
+        private int index;
+
+        public LeafIterator() {
+            leaf = firstLeaf();
+            index = 0;
+            skipEmpty();
+        }
+
+        private void skipEmpty() {
+            while (leaf != null && index >= leaf.count) {
+                leaf = leaf.next;
+                index = 0;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return leaf != null;
+        }
+
+        @Override
+        public KeyValuePair<K, V> next() {
+            if (leaf == null) {
+                throw new NoSuchElementException();
+            }
+            KeyValuePair<K, V> output = new KeyValuePair<K, V>(leaf.keys[index], leaf.values[index]);
+            index++;
+            skipEmpty();
+            return output;
+        }
+    }
+
+    /*
+     * Returns the number of keys in the tree
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /*
+     * Returns a list of the keys in the tree, in order
+     */
+    @Override
+    public ArrayList<K> keySet() {
+        ArrayList<K> output = new ArrayList<>(size);
+        for (Leaf<K, V> leaf = firstLeaf(); leaf != null; leaf = leaf.next) {
+            for (int i = 0; i < leaf.count; i++) {
+                output.add(leaf.keys[i]);
+            }
+        }
+        return output;
+    }
+
+    /*
+     * Return the list of all the values of the tree, in key order
+     */
+    @Override
+    public ArrayList<V> values() {
+        ArrayList<V> output = new ArrayList<>(size);
+        for (Leaf<K, V> leaf = firstLeaf(); leaf != null; leaf = leaf.next) {
+            for (int i = 0; i < leaf.count; i++) {
+                output.add(leaf.values[i]);
+            }
+        }
+        return output;
+    }
+
+    /*
+     * Returns the list of all the key-value pairs in the tree, in order
+     */
+    @Override
+    public ArrayList<KeyValuePair<K, V>> entrySet() {
+        ArrayList<KeyValuePair<K, V>> output = new ArrayList<>(size);
+        for (Leaf<K, V> leaf = firstLeaf(); leaf != null; leaf = leaf.next) {
+            for (int i = 0; i < leaf.count; i++) {
+                output.add(new KeyValuePair<K, V>(leaf.keys[i], leaf.values[i]));
+            }
+        }
+        return output;
+    }
+
+    /*
+     * Run an action on every pair in the tree, in order
+     */
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        for (Leaf<K, V> leaf = firstLeaf(); leaf != null; leaf = leaf.next) {
+            for (int i = 0; i < leaf.count; i++) {
+                action.accept(leaf.keys[i], leaf.values[i]);
+            }
+        }
+    }
+
+    /*
+     * Get the number of nodes from the root to a leaf, which is the same for
+     * every leaf
+     */
+    @Override
+    public int maxDepth() {
+        if (size == 0) {
+            return 0;
+        }
+
+        int depth = 1;
+        for (Node<K> node = root; node instanceof Internal; node = ((Internal<K>) node).children[0]) {
+            depth++;
+        }
+        return depth;
+    }
+
+    /*
+     * Reset the map
+     */
+    @Override
+    public void clear() {
+        root = new Leaf<K, V>(order);
+        size = 0;
+    }
+
+    /*
+     * String representation of the tree, one line per pair in key order
+     */
+    public String toString() {
+        StringBuilder output = new StringBuilder();
+        forEach((key, value) -> output.append("<" + key + " -> " + value + ">\n"));
+        return output.toString();
+    }
+}
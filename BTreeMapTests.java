@@ -0,0 +1,171 @@
+/*
+ * Name: Michael Tenkorang
+ * Class Purpose: Working with the HashMaps and Binary Search Trees
+ */
+
+public class BTreeMapTests {
+    public static void bTreeTests() {
+        {
+            /*
+             * Test constructor and size() method
+             */
+            // Setup
+            BTreeMap<String, Integer> map = new BTreeMap<>();
+
+            // Verify
+            System.out.println(map + " == ");
+            System.out.println(map.size() + " == 0");
+
+            // Test
+            assert map != null;
+            assert map.size() == 0;
+        }
+
+        {
+            /*
+             * Test put() and get() method
+             */
+            // Setup
+            BTreeMap<String, Integer> map = new BTreeMap<>();
+            map.put("Michael", 10);
+            map.put("Professor", 5);
+            Integer oldVal = map.put("Michael", 20);
+
+            // Verify
+            System.out.println(map.get("Michael") + " == 20");
+            System.out.println(map.get("Professor") + " == 5");
+            System.out.println(oldVal + " == 10");
+
+            // Test
+            assert map.get("Michael") == 20 : "put() does not replace value";
+            assert oldVal == 10 : "Put return not working";
+            assert map.put("null", 20) == null : "Put return statement not working";
+        }
+
+        {
+            /*
+             * Test contains method
+             */
+
+            // Setup
+            BTreeMap<String, Integer> map = new BTreeMap<>();
+            map.put("Desmond", 20);
+            map.put("Christian", 40);
+            map.put("Delanyo", 60);
+
+            // Verify
+            System.out.println(map.containsKey("Delanyo") + " == true");
+            System.out.println(map.containsKey("delanyo") + " == false");
+
+            // Test
+            assert map.containsKey("Delanyo") == true : "Faulty contains method";
+            assert map.containsKey("delanyo") != true : "Faulty contains method";
+        }
+
+        {
+            /*
+             * Test sorted keys keep the tree shallow, and removing them, which
+             * borrows and merges nodes, keeps every other key
+             */
+
+            // Setup
+            BTreeMap<Integer, Integer> map = new BTreeMap<>(4, null);
+            for (int i = 0; i < 10000; i++) {
+                map.put(i, i);
+            }
+            int depth = map.maxDepth();
+            for (int i = 0; i < 10000; i += 2) {
+                map.remove(i);
+            }
+            boolean othersKept = true;
+            for (int i = 1; i < 10000; i += 2) {
+                othersKept &= map.get(i) == i;
+            }
+
+            // Verify
+            System.out.println((depth <= 14) + " == true");
+            System.out.println(map.size() + " == 5000");
+            System.out.println(map.get(2) + " == null");
+            System.out.println(othersKept + " == true");
+
+            // Test
+            assert depth <= 14 : "tree not balanced";
+            assert map.size() == 5000 : "remove() faulty";
+            assert map.get(2) == null : "remove() does not remove item from map";
+            assert othersKept : "remove() loses other keys";
+        }
+
+        {
+            /*
+             * Test values(), keySet() & entrySet() methods are in key order
+             */
+
+            // Setup
+            BTreeMap<String, Integer> map = new BTreeMap<>();
+            map.put("Dog", 21);
+            map.put("Bat", 12);
+            map.put("Sheep", 9);
+            map.put("Elephant", 67);
+
+            // Verify
+            System.out.println(map.values() + " == [12, 21, 67, 9]");
+            System.out.println(map.keySet() + " == [Bat, Dog, Elephant, Sheep]");
+            System.out.println(map.entrySet() + " == [<Bat -> 12>, <Dog -> 21>, <Elephant -> 67>, <Sheep -> 9>]");
+
+            // Test
+            assert map.values().toString().equals("[12, 21, 67, 9]") : "values() faulty";
+            assert map.keySet().toString().equals("[Bat, Dog, Elephant, Sheep]") : "keySet() faulty";
+            assert map.entrySet().toString().equals("[<Bat -> 12>, <Dog -> 21>, <Elephant -> 67>, <Sheep -> 9>]")
+                    : "entrySet() faulty";
+        }
+
+        {
+            /*
+             * Test compute() and merge() methods
+             */
+
+            // Setup
+            BTreeMap<String, Integer> map = new BTreeMap<>();
+            map.put("Dog", 21);
+            map.put("Bat", 12);
+            int merged = map.merge("Dog", 1, Integer::sum);
+            int computed = map.compute("Cat", (key, value) -> value == null ? 1 : value + 1);
+            Integer removed = map.compute("Bat", (key, value) -> null);
+
+            // Verify
+            System.out.println(merged + " == 22");
+            System.out.println(computed + " == 1");
+            System.out.println(removed + " == null");
+            System.out.println(map.size() + " == 2");
+
+            // Test
+            assert merged == 22 : "merge() faulty";
+            assert computed == 1 && map.get("Cat") == 1 : "compute() does not add item to map";
+            assert removed == null && !map.containsKey("Bat") : "compute() does not remove item from map";
+        }
+
+        {
+            /*
+             * Test clear() and maxDepth() methods
+             */
+
+            // Setup
+            BTreeMap<String, Integer> map = new BTreeMap<>();
+            map.put("Dog", 21);
+            map.put("Bat", 12);
+            map.clear();
+
+            // Verify
+            System.out.println(map.size() + " == 0");
+            System.out.println(map.maxDepth() + " == 0");
+
+            // Test
+            assert map.values().size() == 0 : "clear() faulty";
+            assert map.maxDepth() == 0 : "clear() faulty";
+        }
+    }
+
+    public static void main(String[] args) {
+        bTreeTests();
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Name: Michael Tenkorang
+ * Class Purpose: Working with the HashMaps and Binary Search Trees
+ */
+
+import java.nio.ByteBuffer;
+
+/**
+ * A CountingMapSet of words that can also find words by their UTF-8 bytes, so
+ * words can be counted straight from a file buffer without creating a String
+ * for each one.
+ */
+public interface ByteCountingMapSet extends CountingMapSet<String> {
+
+    /**
+     * Returns the count of the word in a range of bytes, or 0 if it is not in
+     * the map.
+     *
+     * @param buffer the buffer holding the word
+     * @param start  the index of the first byte of the word
+     * @param length the number of bytes in the word
+     * @return the count of the word, or 0 if the word is not in the map
+     */
+    public int getCount(ByteBuffer buffer, int start, int length);
+
+    /**
+     * Adds {@code delta} to the count of the word in a range of bytes,
+     * starting from 0 if the word is not in the map yet.
+     *
+     * @param buffer the buffer holding the word
+     * @param start  the index of the first byte of the word
+     * @param length the number of bytes in the word
+     * @param delta  the amount to add to the count
+     * @return the new count of the word
+     */
+    public int add(ByteBuffer buffer, int start, int length, int delta);
+
+    /**
+     * Adds {@code delta} to the count of the word in a range of bytes only if
+     * the word is already in the map.
+     *
+     * @param buffer the buffer holding the word
+     * @param start  the index of the first byte of the word
+     * @param length the number of bytes in the word
+     * @param delta  the amount to add to the count
+     * @return the new count of the word, or 0 if the word is not in the map
+     */
+    public int addIfPresent(ByteBuffer buffer, int start, int length, int delta);
+
+    /**
+     * Offers every word with its count to a TopKHeap, only creating Strings
+     * for the words the heap could accept.
+     *
+     * @param heap the heap to offer the words to
+     */
+    public void offerTo(TopKHeap heap);
+}
@@ -0,0 +1,581 @@
+/*
+ * Name: Michael Tenkorang
+ * Class Purpose: Working with the HashMaps and Binary Search Trees
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * A map from words to int counts that many threads can count into at the same
+ * time. The words are split over a fixed number of stripes by their hash, and
+ * each stripe is its own CountingHashMap guarded by its own lock, so threads
+ * only wait for each other when they hit the same stripe at the same moment.
+ * The stripe is picked with the high bits of the hash and the slot inside a
+ * stripe with the low bits, so the words of one stripe still spread over its
+ * whole table.
+ *
+ * In real text a few words take a large share of all the counting, so their
+ * stripes are hit far more often than the rest. When a thread finds a
+ * stripe's lock taken while counting a word that is already common, the word
+ * is moved out of its stripe into a ShardedCounter, which threads add to
+ * without any lock. These hot words are kept in a small table that is never
+ * changed, only replaced, so finding one needs no lock either. At most
+ * maxHotWords words are made hot.
+ *
+ * Every single-word operation sees every add() that finished before it.
+ * Operations over the whole map (size(), topWords(), entrySet(), forEach() and
+ * so on) visit one stripe, with its hot words, at a time: each stripe is seen
+ * at a single moment, but counting that is still going on may show up in some
+ * stripes and not in others.
+ */
+public class ConcurrentCountingMap implements CountingMapSet<String> {
+
+    /*
+     * Count a word needs before contention on its stripe makes it hot
+     */
+    private static final int HOT_MIN_COUNT = 1024;
+
+    private static final int DEFAULT_MAX_HOT_WORDS = 64;
+
+    private static class Stripe extends ReentrantLock {
+        private static final long serialVersionUID = 1L;
+
+        private CountingHashMap<String> map = new CountingHashMap<String>();
+    }
+
+    /*
+     * Immutable table of the hot words and their counters
+     */
+    private static class HotWords {
+        private static final HotWords EMPTY = new HotWords(new String[0], new ShardedCounter[0]);
+
+        private final String[] words;
+        private final ShardedCounter[] counters;
+        private final String[] table;
+        private final ShardedCounter[] tableCounters;
+
+        private HotWords(String[] words, ShardedCounter[] counters) {
+            this.words = words;
+            this.counters = counters;
+
+            int capacity = 4;
+            while (capacity < 4 * words.length) {
+                capacity <<= 1;
+            }
+            table = new String[capacity];
+            tableCounters = new ShardedCounter[capacity];
+            for (int i = 0; i < words.length; i++) {
+                int index = words[i].hashCode() & (capacity - 1);
+                while (table[index] != null) {
+                    index = (index + 1) & (capacity - 1);
+                }
+                table[index] = words[i];
+                tableCounters[index] = counters[i];
+            }
+        }
+
+        /*
+         * Returns the counter of a hot word, or null
+         */
+        private ShardedCounter find(String key) {
+            if (words.length == 0) {
+                return null;
+            }
+            int mask = table.length - 1;
+            for (int index = key.hashCode() & mask; table[index] != null; index = (index + 1) & mask) {
+                if (table[index].equals(key)) {
+                    return tableCounters[index];
+                }
+            }
+            return null;
+        }
+
+        /*
+         * Returns a copy of the table with one more word
+         */
+        private HotWords with(String key, ShardedCounter counter) {
+            String[] newWords = Arrays.copyOf(words, words.length + 1);
+            ShardedCounter[] newCounters = Arrays.copyOf(counters, counters.length + 1);
+            newWords[words.length] = key;
+            newCounters[counters.length] = counter;
+            return new HotWords(newWords, newCounters);
+        }
+
+        /*
+         * Returns a copy of the table without a word
+         */
+        private HotWords without(String key) {
+            String[] newWords = new String[words.length - 1];
+            ShardedCounter[] newCounters = new ShardedCounter[counters.length - 1];
+            int next = 0;
+            for (int i = 0; i < words.length; i++) {
+                if (!words[i].equals(key)) {
+                    newWords[next] = words[i];
+                    newCounters[next] = counters[i];
+                    next++;
+                }
+            }
+            return next == 0 ? EMPTY : new HotWords(newWords, newCounters);
+        }
+    }
+
+    private Stripe[] stripes;
+    private int shift;
+    private int maxHotWords;
+    private int shards;
+    private volatile HotWords hot;
+
+    public ConcurrentCountingMap(int concurrencyLevel, int maxHotWords) {
+        int stripeCount = 1;
+        while (stripeCount < concurrencyLevel) {
+            stripeCount <<= 1;
+        }
+        stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+        shift = 32 - Integer.numberOfTrailingZeros(stripeCount);
+        this.maxHotWords = maxHotWords;
+        shards = 2 * Runtime.getRuntime().availableProcessors();
+        hot = HotWords.EMPTY;
+    }
+
+    public ConcurrentCountingMap(int concurrencyLevel) {
+        this(concurrencyLevel, DEFAULT_MAX_HOT_WORDS);
+    }
+
+    public ConcurrentCountingMap() {
+        this(Math.max(64, 4 * Runtime.getRuntime().availableProcessors()));
+    }
+
+    /*
+     * Returns the stripe a word belongs to
+     */
+    private Stripe stripe(String key) {
+        if (shift == 32) {
+            return stripes[0];
+        }
+        return stripes[(key.hashCode() * 0x9E3779B9) >>> shift];
+    }
+
+    /*
+     * Returns the number of stripes
+     */
+    public int stripeCount() {
+        return stripes.length;
+    }
+
+    /*
+     * Returns the number of words that have been made hot
+     */
+    public int hotWordCount() {
+        return hot.words.length;
+    }
+
+    /*
+     * Check if a word has been made hot
+     */
+    public boolean isHot(String key) {
+        return hot.find(key) != null;
+    }
+
+    /*
+     * Int count of a hot word's counter, saturated at Integer.MAX_VALUE since
+     * the shards can add up past what an int holds
+     */
+    private static int toCount(long sum) {
+        return (int) Math.min(sum, Integer.MAX_VALUE);
+    }
+
+    /*
+     * Lock a stripe, returning true if another thread was holding it
+     */
+    private static boolean lock(Stripe stripe) {
+        if (stripe.tryLock()) {
+            return false;
+        }
+        stripe.lock();
+        return true;
+    }
+
+    /*
+     * Move a word of a locked stripe into a ShardedCounter, if there is room
+     * for another hot word
+     */
+    private void makeHot(Stripe stripe, String key, int count) {
+        synchronized (stripes) {
+            if (hot.words.length >= maxHotWords || hot.find(key) != null) {
+                return;
+            }
+            hot = hot.with(key, new ShardedCounter(shards, count));
+        }
+        stripe.map.remove(key);
+    }
+
+    /*
+     * Move a hot word of a locked stripe back into the stripe. Adds that were
+     * still on their way to its counter are turned away and retried under the
+     * stripe's lock, so they land in the stripe.
+     */
+    private void makeCold(Stripe stripe, String key) {
+        ShardedCounter counter;
+        synchronized (stripes) {
+            counter = hot.find(key);
+            if (counter == null) {
+                return;
+            }
+            hot = hot.without(key);
+        }
+        stripe.map.put(key, toCount(counter.seal()));
+    }
+
+    /*
+     * Make a word hot now, without waiting for contention, for words known to
+     * be common. The word is added with a count of 0 if it is not in the map.
+     * Returns false if there is no room for another hot word.
+     */
+    public boolean makeHot(String key) {
+        Stripe stripe = stripe(key);
+        stripe.lock();
+        try {
+            if (hot.find(key) == null) {
+                makeHot(stripe, key, stripe.map.getCount(key));
+            }
+            return hot.find(key) != null;
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /*
+     * Add to the count of a word without returning the new count, which lets
+     * hot words be counted without summing their counter
+     */
+    public void increment(String key, int delta) {
+        ShardedCounter counter = hot.find(key);
+        if (counter == null || delta < 0 || !counter.add(delta)) {
+            addLocked(key, delta, false);
+        }
+    }
+
+    /*
+     * Add to the count of a word that is already in the map without returning
+     * the new count. Returns true if the word was in the map.
+     */
+    public boolean incrementIfPresent(String key, int delta) {
+        ShardedCounter counter = hot.find(key);
+        if (counter != null && delta >= 0 && counter.add(delta)) {
+            return true;
+        }
+        return addLocked(key, delta, true) != 0;
+    }
+
+    /*
+     * Add to the count of a word under its stripe's lock, making the word hot
+     * if the lock was contended and the word is common
+     */
+    private int addLocked(String key, int delta, boolean ifPresent) {
+        Stripe stripe = stripe(key);
+        boolean contended = lock(stripe);
+        try {
+            // the word may have been made hot while this thread waited
+            ShardedCounter counter = hot.find(key);
+            if (counter != null && delta >= 0) {
+                counter.add(delta);
+                return toCount(counter.sum());
+            }
+            // a hot word's counter can only grow, so lowering it moves it back here
+            makeCold(stripe, key);
+
+            int count = ifPresent ? stripe.map.addIfPresent(key, delta) : stripe.map.add(key, delta);
+            if (contended && count >= HOT_MIN_COUNT) {
+                makeHot(stripe, key, count);
+            }
+            return count;
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /*
+     * Get the count of a word
+     */
+    @Override
+    public int getCount(String key) {
+        Integer count = get(key);
+        return count == null ? 0 : count;
+    }
+
+    /*
+     * Add to the count of a word
+     */
+    @Override
+    public int add(String key, int delta) {
+        ShardedCounter counter = hot.find(key);
+        if (counter != null && delta >= 0 && counter.add(delta)) {
+            long sum = counter.sum();
+            if (sum >= 0) {
+                return toCount(sum);
+            }
+            return getCount(key);
+        }
+        return addLocked(key, delta, false);
+    }
+
+    /*
+     * Add to the count of a word that is already in the map
+     */
+    @Override
+    public int addIfPresent(String key, int delta) {
+        ShardedCounter counter = hot.find(key);
+        if (counter != null && delta >= 0 && counter.add(delta)) {
+            long sum = counter.sum();
+            if (sum >= 0) {
+                return toCount(sum);
+            }
+            return getCount(key);
+        }
+        return addLocked(key, delta, true);
+    }
+
+    /*
+     * Adds pair to the map
+     */
+    @Override
+    public Integer put(String key, Integer value) {
+        Stripe stripe = stripe(key);
+        stripe.lock();
+        try {
+            makeCold(stripe, key);
+            return stripe.map.put(key, value);
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /*
+     * Compute a new count for a word. The function runs while the word's
+     * stripe is locked, so it must not use the map itself.
+     */
+    @Override
+    public Integer compute(String key, BiFunction<? super String, ? super Integer, ? extends Integer> remappingFunction) {
+        Stripe stripe = stripe(key);
+        stripe.lock();
+        try {
+            makeCold(stripe, key);
+            return stripe.map.compute(key, remappingFunction);
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /*
+     * Check if the map contains a particular word
+     */
+    @Override
+    public boolean containsKey(String key) {
+        return get(key) != null;
+    }
+
+    /*
+     * Get the count of a particular word
+     */
+    @Override
+    public Integer get(String key) {
+        ShardedCounter counter = hot.find(key);
+        if (counter != null) {
+            long sum = counter.sum();
+            if (sum >= 0) {
+                return toCount(sum);
+            }
+        }
+
+        Stripe stripe = stripe(key);
+        stripe.lock();
+        try {
+            counter = hot.find(key);
+            if (counter != null) {
+                return toCount(counter.sum());
+            }
+            return stripe.map.get(key);
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /*
+     * Remove a word from the map
+     */
+    @Override
+    public Integer remove(String key) {
+        Stripe stripe = stripe(key);
+        stripe.lock();
+        try {
+            makeCold(stripe, key);
+            return stripe.map.remove(key);
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /*
+     * Returns the pairs of one stripe, with its hot words, seen at one moment
+     */
+    private ArrayList<KeyValuePair<String, Integer>> entries(Stripe stripe) {
+        stripe.lock();
+        try {
+            ArrayList<KeyValuePair<String, Integer>> output = stripe.map.entrySet();
+            HotWords hotWords = hot;
+            for (int i = 0; i < hotWords.words.length; i++) {
+                if (stripe(hotWords.words[i]) == stripe) {
+                    output.add(new KeyValuePair<String, Integer>(hotWords.words[i], toCount(hotWords.counters[i].sum())));
+                }
+            }
+            return output;
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /*
+     * Offer every word to a TopKHeap, one stripe at a time
+     */
+    public void offerTo(TopKHeap heap) {
+        for (Stripe stripe : stripes) {
+            for (KeyValuePair<String, Integer> entry : entries(stripe)) {
+                heap.offer(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /*
+     * Find the k most frequent words, most frequent first
+     */
+    public ArrayList<KeyValuePair<String, Integer>> topWords(int k) {
+        TopKHeap heap = new TopKHeap(k);
+        offerTo(heap);
+        return heap.sortedEntries();
+    }
+
+    /*
+     * Returns a list of the words in the map
+     */
+    @Override
+    public ArrayList<String> keySet() {
+        ArrayList<String> output = new ArrayList<>();
+        forEachCount((word, count) -> output.add(word));
+        return output;
+    }
+
+    /*
+     * Returns a list of the counts in the map
+     */
+    @Override
+    public ArrayList<Integer> values() {
+        ArrayList<Integer> output = new ArrayList<>();
+        forEachCount((word, count) -> output.add(count));
+        return output;
+    }
+
+    /*
+     * Returns the list of all the pairs in the map
+     */
+    @Override
+    public ArrayList<KeyValuePair<String, Integer>> entrySet() {
+        ArrayList<KeyValuePair<String, Integer>> output = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            output.addAll(entries(stripe));
+        }
+        return output;
+    }
+
+    /*
+     * Run an action on every pair in the map. Each stripe is copied while it
+     * is locked and the action runs after, so the action may use the map.
+     */
+    @Override
+    public void forEach(BiConsumer<? super String, ? super Integer> action) {
+        for (Stripe stripe : stripes) {
+            for (KeyValuePair<String, Integer> entry : entries(stripe)) {
+                action.accept(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /*
+     * Run an action on every word in the map with its count, the same way as
+     * forEach()
+     */
+    @Override
+    public void forEachCount(ObjIntConsumer<? super String> action) {
+        forEach((word, count) -> action.accept(word, count));
+    }
+
+    /*
+     * Returns the number of words in the map
+     */
+    @Override
+    public int size() {
+        int size = hot.words.length;
+        for (Stripe stripe : stripes) {
+            stripe.lock();
+            try {
+                size += stripe.map.size();
+            } finally {
+                stripe.unlock();
+            }
+        }
+        return size;
+    }
+
+    /*
+     * Empty the map. Hot words stop being hot.
+     */
+    @Override
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            stripe.lock();
+            try {
+                for (String word : hot.words) {
+                    if (stripe(word) == stripe) {
+                        makeCold(stripe, word);
+                    }
+                }
+                stripe.map.clear();
+            } finally {
+                stripe.unlock();
+            }
+        }
+    }
+
+    /*
+     * Get the longest number of slots probed to find a word in any stripe
+     */
+    @Override
+    public int maxDepth() {
+        int maxDepth = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock();
+            try {
+                maxDepth = Math.max(maxDepth, stripe.map.maxDepth());
+            } finally {
+                stripe.unlock();
+            }
+        }
+        return maxDepth;
+    }
+
+    /*
+     * String representation of the map
+     */
+    public String toString() {
+        StringBuilder output = new StringBuilder("\n");
+        forEachCount((word, count) -> output.append("<" + word + " -> " + count + ">\n"));
+        return output.toString();
+    }
+}
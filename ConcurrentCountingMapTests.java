@@ -0,0 +1,269 @@
+/*
+ * Name: Michael Tenkorang
+ * Class Purpose: Working with the HashMaps and Binary Search Trees
+ */
+
+import java.util.ArrayList;
+
+public class ConcurrentCountingMapTests {
+
+    public static void concurrentCountingMapTests() throws InterruptedException {
+        {
+            /*
+             * Test constructor and size() method
+             */
+            // Setup
+            ConcurrentCountingMap map = new ConcurrentCountingMap(10);
+
+            // Verify
+            System.out.println(map.size() + " == 0");
+            System.out.println(map.stripeCount() + " == 16");
+
+            // Test
+            assert map.size() == 0;
+            assert map.stripeCount() == 16 : "stripe count not rounded to a power of two";
+        }
+
+        {
+            /*
+             * Test put(), get(), add() and remove() methods
+             */
+            // Setup
+            ConcurrentCountingMap map = new ConcurrentCountingMap();
+            for (int i = 0; i < 1000; i++) {
+                map.put("word" + i, i);
+            }
+            map.add("word7", 3);
+            int missing = map.addIfPresent("Michael", 1);
+            map.remove("word8");
+
+            // Verify
+            System.out.println(map.size() + " == 999");
+            System.out.println(map.get("word7") + " == 10");
+            System.out.println(map.get("word8") + " == null");
+            System.out.println(missing + " == 0");
+            System.out.println(map.topWords(2) + " == [<word999 -> 999>, <word998 -> 998>]");
+
+            // Test
+            assert map.size() == 999 : "remove() faulty";
+            assert map.get("word7") == 10 : "add() faulty";
+            assert map.get("word8") == null : "remove() does not remove item from map";
+            assert missing == 0 : "addIfPresent() adds new keys";
+            assert map.topWords(2).toString().equals("[<word999 -> 999>, <word998 -> 998>]") : "topWords() faulty";
+        }
+
+        {
+            /*
+             * Test many threads adding to the same words while another thread
+             * reads them loses no counts, and reads never see a count go down
+             */
+            // Setup
+            ConcurrentCountingMap map = new ConcurrentCountingMap();
+            int threads = 8;
+            int adds = 20000;
+            ArrayList<Thread> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Thread writer = new Thread(() -> {
+                    for (int i = 0; i < adds; i++) {
+                        map.add("word" + (i % 100), 1);
+                    }
+                });
+                writers.add(writer);
+                writer.start();
+            }
+            boolean[] monotonic = { true };
+            Thread reader = new Thread(() -> {
+                int last = 0;
+                while (last < threads * adds / 100) {
+                    int count = map.getCount("word0");
+                    monotonic[0] &= count >= last;
+                    last = count;
+                    map.topWords(10);
+                }
+            });
+            reader.start();
+            for (Thread writer : writers) {
+                writer.join();
+            }
+            reader.join();
+            boolean allCounted = true;
+            for (int i = 0; i < 100; i++) {
+                allCounted &= map.getCount("word" + i) == threads * adds / 100;
+            }
+
+            // Verify
+            System.out.println(map.size() + " == 100");
+            System.out.println(allCounted + " == true");
+            System.out.println(monotonic[0] + " == true");
+
+            // Test
+            assert map.size() == 100 : "concurrent add() faulty";
+            assert allCounted : "concurrent add() loses counts";
+            assert monotonic[0] : "get() sees counts go down";
+        }
+
+        {
+            /*
+             * Test a ShardedCounter counts from many threads and turns adds away
+             * once sealed
+             */
+            // Setup
+            ShardedCounter counter = new ShardedCounter(4, 10);
+            ArrayList<Thread> writers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                Thread writer = new Thread(() -> {
+                    for (int i = 0; i < 10000; i++) {
+                        counter.add(1);
+                    }
+                });
+                writers.add(writer);
+                writer.start();
+            }
+            for (Thread writer : writers) {
+                writer.join();
+            }
+            long sum = counter.sum();
+            long sealed = counter.seal();
+            boolean added = counter.add(1);
+
+            // Verify
+            System.out.println(sum + " == 80010");
+            System.out.println(sealed + " == 80010");
+            System.out.println(added + " == false");
+            System.out.println(counter.sum() + " == -1");
+
+            // Test
+            assert sum == 80010 : "ShardedCounter loses counts";
+            assert sealed == 80010 : "seal() faulty";
+            assert !added : "add() counts after seal()";
+            assert counter.sum() == -1 : "sum() after seal() faulty";
+        }
+
+        {
+            /*
+             * Test hot words lose no counts while they are made cold and hot
+             * again by another thread, and are counted by the whole-map methods
+             */
+            // Setup
+            ConcurrentCountingMap map = new ConcurrentCountingMap();
+            map.add("peace", 5);
+            boolean madeHot = map.makeHot("peace");
+            int threads = 4;
+            int adds = 50000;
+            ArrayList<Thread> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Thread writer = new Thread(() -> {
+                    for (int i = 0; i < adds; i++) {
+                        map.increment("peace", 1);
+                        map.add("word" + (i % 10), 1);
+                    }
+                });
+                writers.add(writer);
+                writer.start();
+            }
+            for (int i = 0; i < 200; i++) {
+                map.compute("peace", (word, count) -> count);
+                map.makeHot("peace");
+            }
+            for (Thread writer : writers) {
+                writer.join();
+            }
+
+            // Verify
+            System.out.println(madeHot + " == true");
+            System.out.println(map.isHot("peace") + " == true");
+            System.out.println(map.getCount("peace") + " == " + (threads * adds + 5));
+            System.out.println(map.size() + " == 11");
+            System.out.println(map.topWords(1) + " == [<peace -> " + (threads * adds + 5) + ">]");
+
+            // Test
+            assert madeHot : "makeHot() faulty";
+            assert map.isHot("peace") : "makeHot() faulty";
+            assert map.getCount("peace") == threads * adds + 5 : "hot words lose counts";
+            assert map.size() == 11 : "size() faulty with hot words";
+            assert map.topWords(1).toString().equals("[<peace -> " + (threads * adds + 5) + ">]")
+                    : "topWords() misses hot words";
+            map.remove("peace");
+            assert !map.isHot("peace") && map.get("peace") == null : "remove() of a hot word faulty";
+        }
+
+        {
+            /*
+             * Test a hot word's count stops at Integer.MAX_VALUE instead of
+             * wrapping, while hot and once made cold
+             */
+            // Setup
+            ConcurrentCountingMap map = new ConcurrentCountingMap();
+            map.makeHot("peace");
+            map.increment("peace", Integer.MAX_VALUE);
+            map.increment("peace", 10);
+            int hotCount = map.getCount("peace");
+            Integer coldCount = map.remove("peace");
+
+            // Verify
+            System.out.println(hotCount + " == " + Integer.MAX_VALUE);
+            System.out.println(coldCount + " == " + Integer.MAX_VALUE);
+
+            // Test
+            assert hotCount == Integer.MAX_VALUE : "hot count wraps";
+            assert coldCount == Integer.MAX_VALUE : "makeCold() wraps the count";
+        }
+
+        {
+            /*
+             * Test lowering a hot word's count moves it back to its stripe
+             * instead of making its counter look sealed
+             */
+            // Setup
+            ConcurrentCountingMap map = new ConcurrentCountingMap();
+            map.add("peace", 5);
+            map.makeHot("peace");
+            int lowered = map.add("peace", -1);
+            boolean hotAfterLowering = map.isHot("peace");
+            map.makeHot("peace");
+            map.increment("peace", -2);
+            map.increment("peace", 3);
+            boolean rejected = false;
+            try {
+                new ShardedCounter(4, 0).add(-1);
+            } catch (IllegalArgumentException e) {
+                rejected = true;
+            }
+
+            // Verify
+            System.out.println(lowered + " == 4");
+            System.out.println(hotAfterLowering + " == false");
+            System.out.println(map.getCount("peace") + " == 5");
+            System.out.println(rejected + " == true");
+
+            // Test
+            assert lowered == 4 : "add() of a negative delta to a hot word faulty";
+            assert !hotAfterLowering : "lowered word stays hot";
+            assert map.getCount("peace") == 5 : "increment() of a negative delta to a hot word faulty";
+            assert rejected : "ShardedCounter accepts a negative delta";
+        }
+
+        {
+            /*
+             * Test clear() and maxDepth() methods
+             */
+            // Setup
+            ConcurrentCountingMap map = new ConcurrentCountingMap();
+            map.add("Dog", 21);
+            map.add("Bat", 12);
+            map.clear();
+
+            // Verify
+            System.out.println(map.size() + " == 0");
+            System.out.println(map.maxDepth() + " == 0");
+
+            // Test
+            assert map.values().size() == 0 : "clear() faulty";
+            assert map.maxDepth() == 0 : "clear() faulty";
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        concurrentCountingMapTests();
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Name: Michael Tenkorang
+ * Class Purpose: Working with the HashMaps and Binary Search Trees
+ */
+
+/**
+ * Count-Min Sketch: estimates how many times each key was counted using a
+ * fixed grid of counters instead of storing the keys. Every key is hashed to
+ * one counter in each row, and its estimate is the smallest of those counters.
+ * An estimate is never below the true count, and with probability
+ * {@code 1 - delta} it is at most {@code epsilon * totalCount()} above it.
+ *
+ * With conservative update, adding to a key only raises its counters as far
+ * as needed to keep its new estimate correct, which leaves other keys sharing
+ * those counters with tighter estimates. Taking counts back out with
+ * subtract() is best effort: the bounds above only still hold without
+ * conservative update, and if no more than a key's true count is taken out.
+ */
+public class CountMinSketch {
+
+    private int width;
+    private int depth;
+    private int[] counters;
+    private long totalCount;
+    private boolean conservative;
+
+    public CountMinSketch(double epsilon, double delta, boolean conservative) {
+        this.width = (int) Math.ceil(Math.E / epsilon);
+        this.depth = (int) Math.ceil(Math.log(1 / delta));
+        this.counters = new int[width * depth];
+        this.totalCount = 0;
+        this.conservative = conservative;
+    }
+
+    public CountMinSketch(double epsilon, double delta) {
+        this(epsilon, delta, true);
+    }
+
+    /*
+     * Add to the count of a key and return its new estimate
+     */
+    public int add(CharSequence key, int delta) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        totalCount += delta;
+
+        if (!conservative) {
+            int estimate = Integer.MAX_VALUE;
+            for (int row = 0; row < depth; row++) {
+                int index = index(row, h1, h2);
+                counters[index] += delta;
+                estimate = Math.min(estimate, counters[index]);
+            }
+            return estimate;
+        }
+
+        int estimate = estimate(h1, h2) + delta;
+        for (int row = 0; row < depth; row++) {
+            int index = index(row, h1, h2);
+            if (counters[index] < estimate) {
+                counters[index] = estimate;
+            }
+        }
+        return estimate;
+    }
+
+    /*
+     * Get the estimated count of a key
+     */
+    public int estimate(CharSequence key) {
+        long hash = hash(key);
+        return estimate((int) hash, (int) (hash >>> 32) | 1);
+    }
+
+    /*
+     * Take part of a key's count back out and return its new estimate. Each
+     * of its counters is lowered by delta, but not below 0. With conservative
+     * update a key may not have raised every counter by its full count, so
+     * other keys sharing those counters can end up below their true counts.
+     */
+    public int subtract(CharSequence key, int delta) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        totalCount -= delta;
+
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = index(row, h1, h2);
+            counters[index] = Math.max(0, counters[index] - delta);
+            estimate = Math.min(estimate, counters[index]);
+        }
+        return estimate;
+    }
+
+    /*
+     * Smallest counter of a key across the rows
+     */
+    private int estimate(int h1, int h2) {
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters[index(row, h1, h2)]);
+        }
+        return estimate;
+    }
+
+    /*
+     * Add the counters of another sketch with the same dimensions into this one
+     */
+    public void merge(CountMinSketch other) {
+        if (other.width != width || other.depth != depth) {
+            throw new IllegalArgumentException("CountMinSketch.merge():: sketches have different dimensions");
+        }
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] += other.counters[i];
+        }
+        totalCount += other.totalCount;
+    }
+
+    /*
+     * Returns the sum of all the counts added
+     */
+    public long totalCount() {
+        return totalCount;
+    }
+
+    /*
+     * Returns the number of counters in a row
+     */
+    public int width() {
+        return width;
+    }
+
+    /*
+     * Returns the number of rows
+     */
+    public int depth() {
+        return depth;
+    }
+
+    /*
+     * Check if adding to a key only raises its counters as far as needed
+     */
+    public boolean isConservative() {
+        return conservative;
+    }
+
+    /*
+     * Reset every counter
+     */
+    public void clear() {
+        counters = new int[width * depth];
+        totalCount = 0;
+    }
+
+    /*
+     * Index of a key's counter in a row. The row hashes are h1 + row * h2, which
+     * behave like independent hashes for a Count-Min Sketch; h2 is forced odd so
+     * it is never 0.
+     */
+    private int index(int row, int h1, int h2) {
+        return row * width + Math.floorMod(h1 + row * h2, width);
+    }
+
+    /*
+     * 64-bit hash of a key's characters, split into two 32-bit hashes by the
+     * caller. Keys with the same 32-bit hashCode() would share every counter
+     * in every row, so the hash is the same one HyperLogLog uses.
+     */
+    private static long hash(CharSequence key) {
+        return HyperLogLog.hash(key);
+    }
+}
@@ -0,0 +1,380 @@
+/*
+ * Name: Michael Tenkorang
+ * Class Purpose: Working with the HashMaps and Binary Search Trees
+ */
+
+import java.util.ArrayList;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * A hash map from keys to int counts. Keys, their hashes and their counts are
+ * kept in three parallel arrays and collisions are resolved with linear
+ * probing, so there are no nodes and no boxed Integers on the counting path.
+ */
+@SuppressWarnings("unchecked")
+public class CountingHashMap<K> implements CountingMapSet<K> {
+
+    private K[] keys;
+    private int[] hashes;
+    private int[] counts;
+    private int size;
+    private double maxLoadFactor;
+
+    public CountingHashMap(int initialCapacity, double maxLoadFactor) {
+        int capacity = 16;
+        while (capacity < initialCapacity) {
+            capacity <<= 1;
+        }
+        keys = (K[]) new Object[capacity];
+        hashes = new int[capacity];
+        counts = new int[capacity];
+        size = 0;
+        this.maxLoadFactor = maxLoadFactor;
+    }
+
+    public CountingHashMap(int initialCapacity) {
+        this(initialCapacity, .5);
+    }
+
+    public CountingHashMap() {
+        this(16);
+    }
+
+    /*
+     * Capacity of the arrays
+     */
+    private int capacity() {
+        return keys.length;
+    }
+
+    /*
+     * Returns hash of each key, with the high bits mixed into the low bits
+     */
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /*
+     * Returns the slot holding a key, or the empty slot where it would go
+     */
+    private int slot(K key, int hash) {
+        int mask = capacity() - 1;
+        int index = hash & mask;
+
+        while (keys[index] != null) {
+            if (hashes[index] == hash && keys[index].equals(key)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+
+        return index;
+    }
+
+    /*
+     * Put a key in an empty slot and grow the arrays if needed
+     */
+    private void insert(int index, K key, int hash, int count) {
+        keys[index] = key;
+        hashes[index] = hash;
+        counts[index] = count;
+        size++;
+        if (size > maxLoadFactor * capacity()) {
+            resize(capacity() * 2);
+        }
+    }
+
+    /*
+     * Get the count of a key
+     */
+    @Override
+    public int getCount(K key) {
+        int index = slot(key, hash(key));
+        return keys[index] == null ? 0 : counts[index];
+    }
+
+    /*
+     * Add to the count of a key
+     */
+    @Override
+    public int add(K key, int delta) {
+        int hash = hash(key);
+        int index = slot(key, hash);
+
+        if (keys[index] != null) {
+            counts[index] += delta;
+            return counts[index];
+        }
+
+        insert(index, key, hash, delta);
+        return delta;
+    }
+
+    /*
+     * Add to the count of a key that is already in the map
+     */
+    @Override
+    public int addIfPresent(K key, int delta) {
+        int index = slot(key, hash(key));
+
+        if (keys[index] == null) {
+            return 0;
+        }
+
+        counts[index] += delta;
+        return counts[index];
+    }
+
+    /*
+     * Adds pair to the map
+     */
+    @Override
+    public Integer put(K key, Integer value) {
+        if (value == null) {
+            return null;
+        }
+
+        int hash = hash(key);
+        int index = slot(key, hash);
+
+        if (keys[index] != null) {
+            int oldVal = counts[index];
+            counts[index] = value;
+            return oldVal;
+        }
+
+        insert(index, key, hash, value);
+        return null;
+    }
+
+    /*
+     * Compute a new count for a key, finding its slot only once
+     */
+    @Override
+    public Integer compute(K key, BiFunction<? super K, ? super Integer, ? extends Integer> remappingFunction) {
+        int hash = hash(key);
+        int index = slot(key, hash);
+
+        if (keys[index] != null) {
+            Integer newVal = remappingFunction.apply(key, counts[index]);
+            if (newVal == null) {
+                removeSlot(index);
+            } else {
+                counts[index] = newVal;
+            }
+            return newVal;
+        }
+
+        Integer newVal = remappingFunction.apply(key, null);
+        if (newVal != null) {
+            insert(index, key, hash, newVal);
+        }
+        return newVal;
+    }
+
+    /*
+     * Check if the map contains a particular key
+     */
+    @Override
+    public boolean containsKey(K key) {
+        return keys[slot(key, hash(key))] != null;
+    }
+
+    /*
+     * Get the count of a particular key
+     */
+    @Override
+    public Integer get(K key) {
+        int index = slot(key, hash(key));
+        return keys[index] == null ? null : counts[index];
+    }
+
+    /*
+     * Remove a key from the map
+     */
+    @Override
+    public Integer remove(K key) {
+        int index = slot(key, hash(key));
+
+        if (keys[index] == null) {
+            return null;
+        }
+
+        int oldVal = counts[index];
+        removeSlot(index);
+        return oldVal;
+    }
+
+    /*
+     * Empty a slot and shift back the keys after it that would no longer be
+     * found, so lookups can keep stopping at the first empty slot
+     */
+    private void removeSlot(int index) {
+        int mask = capacity() - 1;
+        int hole = index;
+        int next = (hole + 1) & mask;
+
+        while (keys[next] != null) {
+            int home = hashes[next] & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                hashes[hole] = hashes[next];
+                counts[hole] = counts[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+
+        keys[hole] = null;
+        counts[hole] = 0;
+        size--;
+    }
+
+    /*
+     * Resize the arrays
+     */
+    private void resize(int newCapacity) {
+        K[] oldKeys = keys;
+        int[] oldHashes = hashes;
+        int[] oldCounts = counts;
+        keys = (K[]) new Object[newCapacity];
+        hashes = new int[newCapacity];
+        counts = new int[newCapacity];
+        int mask = newCapacity - 1;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int index = oldHashes[i] & mask;
+                while (keys[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                hashes[index] = oldHashes[i];
+                counts[index] = oldCounts[i];
+            }
+        }
+    }
+
+    /*
+     * Return a list of the keys in the map
+     */
+    @Override
+    public ArrayList<K> keySet() {
+        ArrayList<K> output = new ArrayList<>();
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                output.add(keys[i]);
+            }
+        }
+        return output;
+    }
+
+    /*
+     * Returns a list of the counts in the map
+     */
+    @Override
+    public ArrayList<Integer> values() {
+        ArrayList<Integer> output = new ArrayList<>();
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                output.add(counts[i]);
+            }
+        }
+        return output;
+    }
+
+    /*
+     * Returns the list of all the pairs in the map
+     */
+    @Override
+    public ArrayList<KeyValuePair<K, Integer>> entrySet() {
+        ArrayList<KeyValuePair<K, Integer>> output = new ArrayList<>();
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                output.add(new KeyValuePair<K, Integer>(keys[i], counts[i]));
+            }
+        }
+        return output;
+    }
+
+    /*
+     * Run an action on every pair in the map
+     */
+    @Override
+    public void forEach(BiConsumer<? super K, ? super Integer> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                action.accept(keys[i], counts[i]);
+            }
+        }
+    }
+
+    /*
+     * Run an action on every key in the map with its count
+     */
+    @Override
+    public void forEachCount(ObjIntConsumer<? super K> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                action.accept(keys[i], counts[i]);
+            }
+        }
+    }
+
+    /*
+     * Returns the number of items in the map
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /*
+     * Reset the map
+     */
+    @Override
+    public void clear() {
+        keys = (K[]) new Object[16];
+        hashes = new int[16];
+        counts = new int[16];
+        size = 0;
+    }
+
+    /*
+     * Get the longest number of slots probed to find a key
+     */
+    @Override
+    public int maxDepth() {
+        int mask = capacity() - 1;
+        int maxDepth = 0;
+
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                int depth = ((i - (hashes[i] & mask)) & mask) + 1;
+                if (depth > maxDepth) {
+                    maxDepth = depth;
+                }
+            }
+        }
+
+        return maxDepth;
+    }
+
+    /*
+     * String representation of the map
+     */
+    public String toString() {
+        String output = "\n";
+
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                output += "<" + keys[i] + " -> " + counts[i] + ">\n";
+            }
+        }
+
+        return output;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Name: Michael Tenkorang
+ * Class Purpose: Working with the HashMaps and Binary Search Trees
+ */
+
+public class CountingHashMapTests {
+
+    public static void countingHashMapTests() {
+        {
+            /*
+             * Test constructor and size() method
+             */
+            // Setup
+            CountingHashMap<String> map = new CountingHashMap<>();
+
+            // Verify
+            System.out.println(map.size() + " == 0");
+
+            // Test
+            assert map.size() == 0;
+        }
+
+        {
+            /*
+             * Test add(), addIfPresent() and getCount() methods
+             */
+            // Setup
+            CountingHashMap<String> map = new CountingHashMap<>();
+            map.add("Michael", 1);
+            map.add("Michael", 1);
+            int added = map.add("Professor", 5);
+            int missing = map.addIfPresent("Tenkorang", 1);
+            int present = map.addIfPresent("Professor", 1);
+
+            // Verify
+            System.out.println(map.getCount("Michael") + " == 2");
+            System.out.println(added + " == 5");
+            System.out.println(missing + " == 0");
+            System.out.println(present + " == 6");
+            System.out.println(map.getCount("Tenkorang") + " == 0");
+
+            // Test
+            assert map.getCount("Michael") == 2 : "add() faulty";
+            assert missing == 0 && !map.containsKey("Tenkorang") : "addIfPresent() adds new keys";
+            assert present == 6 : "addIfPresent() faulty";
+        }
+
+        {
+            /*
+             * Test put(), get() and remove() after resizing
+             */
+            // Setup
+            CountingHashMap<String> map = new CountingHashMap<>();
+            for (int i = 0; i < 1000; i++) {
+                map.put("word" + i, i);
+            }
+            for (int i = 0; i < 1000; i += 2) {
+                map.remove("word" + i);
+            }
+
+            // Verify
+            System.out.println(map.size() + " == 500");
+            System.out.println(map.get("word501") + " == 501");
+            System.out.println(map.get("word500") + " == null");
+
+            // Test
+            assert map.size() == 500 : "remove() faulty";
+            assert map.get("word501") == 501 : "remove() loses other keys";
+            assert map.get("word500") == null : "remove() does not remove item from map";
+        }
+
+        {
+            /*
+             * Test clear() and maxDepth() methods
+             */
+            // Setup
+            CountingHashMap<String> map = new CountingHashMap<>();
+            map.add("Dog", 21);
+            map.add("Bat", 12);
+            map.clear();
+
+            // Verify
+            System.out.println(map.size() + " == 0");
+            System.out.println(map.maxDepth() + " == 0");
+
+            // Test
+            assert map.values().size() == 0 : "clear() faulty";
+        }
+    }
+
+    public static void main(String[] args) {
+        countingHashMapTests();
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Name: Michael Tenkorang
+ * Class Purpose: Working with the HashMaps and Binary Search Trees
+ */
+
+import java.util.function.ObjIntConsumer;
+
+/**
+ * A MapSet whose values are counts. Besides the MapSet methods, which box the
+ * counts as Integers, it can add to a count as a plain int so counting words
+ * does not allocate.
+ */
+public interface CountingMapSet<K> extends MapSet<K, Integer> {
+
+    /**
+     * Returns the count of the specified key, or 0 if this map contains no
+     * mapping for the key.
+     *
+     * @param key the key whose count is to be returned
+     * @return the count of the key, or 0 if the key is not in the map
+     */
+    public int getCount(K key);
+
+    /**
+     * Adds {@code delta} to the count of the specified key, starting from 0 if
+     * the key is not in the map yet.
+     *
+     * @param key   the key whose count is to be changed
+     * @param delta the amount to add to the count
+     * @return the new count of the key
+     */
+    public int add(K key, int delta);
+
+    /**
+     * Adds {@code delta} to the count of the specified key only if the key is
+     * already in the map.
+     *
+     * @param key   the key whose count is to be changed
+     * @param delta the amount to add to the count
+     * @return the new count of the key, or 0 if the key is not in the map
+     */
+    public int addIfPresent(K key, int delta);
+
+    /**
+     * Performs the given action for each key in this map with its count as a
+     * plain int.
+     *
+     * @param action The action to be performed for each key and count
+     */
+    public void forEachCount(ObjIntConsumer<? super K> action);
+}
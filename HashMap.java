@@ -5,27 +5,57 @@
 
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 
 @SuppressWarnings("unchecked")
 public class HashMap<K, V> implements MapSet<K, V>, Iterable<HashMap.Node<K, V>> {
 
     public static class Node<K, V> extends MapSet.KeyValuePair<K, V> {
         Node<K, V> next;
+        final int hash;
 
         public Node(K key, V value, Node<K, V> next) {
+            this(spread(key), key, value, next);
+        }
+
+        Node(int hash, K key, V value, Node<K, V> next) {
             super(key, value);
+            this.hash = hash;
             this.next = next;
         }
     }
 
     private Node<K, V>[] buckets;
+    private Node<K, V>[] oldBuckets;
+    private int rehashIndex;
     private int size;
     private double maxLoadFactor;
+    private int minCapacity;
+    private boolean incrementalResize;
+
+    /*
+     * Number of old buckets moved to the new table on each operation while an
+     * incremental resize is in progress
+     */
+    private static final int REHASH_STEPS = 4;
+
+    public HashMap(int initialCapacity, double maxLoadFactor, boolean incrementalResize) {
+        int capacity = 1;
+        while (capacity < initialCapacity) {
+            capacity <<= 1;
+        }
 
-    public HashMap(int initialCapacity, double maxLoadFactor) {
         size = 0;
-        buckets = (Node<K, V>[]) new Node[initialCapacity];
+        buckets = (Node<K, V>[]) new Node[capacity];
+        oldBuckets = null;
         this.maxLoadFactor = maxLoadFactor;
+        this.minCapacity = capacity;
+        this.incrementalResize = incrementalResize;
+    }
+
+    public HashMap(int initialCapacity, double maxLoadFactor) {
+        this(initialCapacity, maxLoadFactor, false);
     }
 
     public HashMap(int initialCapacity) {
@@ -48,6 +78,7 @@ public class HashMap<K, V> implements MapSet<K, V>, Iterable<HashMap.Node<K, V>>
         private Node<K, V> currentNode;
 
         public HashMapIterator() {
+            completeRehash();
             bucketIndex = -1;
             currentNode = null;
             for (int i = 0; i < buckets.length; i++) {
@@ -98,147 +129,242 @@ public class HashMap<K, V> implements MapSet<K, V>, Iterable<HashMap.Node<K, V>>
     }
 
     /*
-     * Returns hash of each key
+     * Returns hash of each key, with the high bits mixed into the low bits since
+     * only the low bits pick the bucket
      */
-    private int hash(K key) {
-        return Math.abs(key.hashCode() % capacity());
+    static int spread(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
     }
 
     /*
-     * Adds pair to hashmap
+     * Returns the index of a hash in a table of buckets. Tables are always a
+     * power of two long, so this is a mask instead of a modulo.
      */
-    @Override
-    public V put(K key, V value) {
-        int index = hash(key);
-
-        if (buckets[index] == null) {
-            buckets[index] = new Node<K, V>(key, value, null);
-        } else {
-            for (Node<K, V> curNode = buckets[index]; curNode != null; curNode = curNode.next) {
-                if (curNode.getKey().equals(key)) {
-                    V oldVal = curNode.getValue();
-                    curNode.setValue(value);
-                    return oldVal;
-                }
+    private static int indexFor(int hash, Node<?, ?>[] table) {
+        return hash & (table.length - 1);
+    }
+
+    /*
+     * Returns the node holding a key, looking in the table being moved away
+     * from as well while a resize is in progress
+     */
+    private Node<K, V> findNode(K key) {
+        rehashStep();
+        int hash = spread(key);
+
+        for (Node<K, V> curNode = buckets[indexFor(hash, buckets)]; curNode != null; curNode = curNode.next) {
+            if (curNode.hash == hash && curNode.getKey().equals(key)) {
+                return curNode;
             }
+        }
 
-            buckets[index] = new Node<K, V>(key, value, buckets[index]);
+        if (oldBuckets != null) {
+            for (Node<K, V> curNode = oldBuckets[indexFor(hash, oldBuckets)]; curNode != null; curNode = curNode.next) {
+                if (curNode.hash == hash && curNode.getKey().equals(key)) {
+                    return curNode;
+                }
+            }
         }
 
+        return null;
+    }
+
+    /*
+     * Add a key that is not in the map yet
+     */
+    private void addNode(K key, V value) {
+        int hash = spread(key);
+        int index = indexFor(hash, buckets);
+        buckets[index] = new Node<K, V>(hash, key, value, buckets[index]);
+
         size++;
         if (size > maxLoadFactor * capacity()) {
             resize(capacity() * 2);
         }
-
-        return null;
     }
 
     /*
-     * Resize the buckets
+     * Unlink the node holding a key and return it, or null if there is none
      */
-    private void resize(int newSize) {
-        Node<K, V>[] oldBuckets = this.buckets;
-        this.buckets = (Node<K, V>[]) new Node[newSize];
+    private Node<K, V> removeNode(K key) {
+        int hash = spread(key);
+        Node<K, V> removed = removeNode(key, hash, buckets);
+        if (removed == null && oldBuckets != null) {
+            removed = removeNode(key, hash, oldBuckets);
+        }
 
-        size = 0;
-        for (Node<K, V> curNode : oldBuckets) {
-            if (curNode != null) {
-                for (Node<K, V> iNode = curNode; iNode != null; iNode = iNode.next) {
-                    put(iNode.getKey(), iNode.getValue());
-                }
+        if (removed != null) {
+            size--;
+            // wait for a resize in progress to finish before shrinking, since
+            // starting another would move the rest of it in one go
+            if (oldBuckets == null && capacity() > minCapacity && size < (capacity() * maxLoadFactor) / 4) {
+                resize(Math.max(minCapacity, capacity() / 2));
             }
         }
 
+        return removed;
     }
 
     /*
-     * Check if the map contains a particular key
+     * Unlink the node holding a key from one table of buckets
      */
-    @Override
-    public boolean containsKey(K key) {
-        int index = hash(key);
-
-        if (buckets[index] == null) {
-            return false;
-        } else {
-            for (Node<K, V> curNode = buckets[index]; curNode != null; curNode = curNode.next) {
-                if (curNode.getKey().equals(key)) {
-                    return true;
+    private Node<K, V> removeNode(K key, int hash, Node<K, V>[] table) {
+        int index = indexFor(hash, table);
+
+        Node<K, V> prev = null;
+        for (Node<K, V> curNode = table[index]; curNode != null; curNode = curNode.next) {
+            if (curNode.hash == hash && curNode.getKey().equals(key)) {
+                if (prev == null) {
+                    table[index] = curNode.next;
+                } else {
+                    prev.next = curNode.next;
                 }
+                return curNode;
             }
+            prev = curNode;
         }
 
-        return false;
+        return null;
     }
 
     /*
-     * Get the value of a particular key
+     * Adds pair to hashmap
      */
     @Override
-    public V get(K key) {
-        int index = hash(key);
-
-        if (buckets[index] == null) {
-            return null;
-        } else {
-            for (Node<K, V> curNode = buckets[index]; curNode != null; curNode = curNode.next) {
-                if (curNode.getKey().equals(key)) {
-                    return curNode.getValue();
-                }
-            }
+    public V put(K key, V value) {
+        Node<K, V> node = findNode(key);
+
+        if (node != null) {
+            V oldVal = node.getValue();
+            node.setValue(value);
+            return oldVal;
         }
 
+        addNode(key, value);
         return null;
     }
 
     /*
-     * Remove a key from the hashmap
+     * Compute a new value for a key, walking its bucket only once unless the
+     * key has to be removed
      */
     @Override
-    public V remove(K key) {
-        int index = hash(key);
-
-        if (buckets[index] == null) {
-            return null;
-        } else if (buckets[index].getKey().equals(key)) {
-            Node<K, V> curr = buckets[index];
-            V output = curr.getValue();
-            buckets[index] = curr.next;
-            size--;
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        Node<K, V> node = findNode(key);
+        V newVal = remappingFunction.apply(key, node == null ? null : node.getValue());
+
+        if (node != null && newVal != null) {
+            node.setValue(newVal);
+        } else if (node != null) {
+            removeNode(key);
+        } else if (newVal != null) {
+            addNode(key, newVal);
+        }
 
-            if (size < (capacity() * maxLoadFactor) / 4) {
-                resize(capacity() / 2);
-            }
-            return output;
-        } else {
-            Node<K, V> prev = null;
-            for (Node<K, V> curNode = buckets[index]; curNode != null; curNode = curNode.next) {
-                if (curNode.next.getKey().equals(key)) {
-                    prev = curNode;
-                    break;
-                }
-            }
+        return newVal;
+    }
+
+    /*
+     * Resize the buckets. The nodes are moved to the new table all at once, or
+     * a few buckets per operation when the map resizes incrementally.
+     */
+    private void resize(int newSize) {
+        completeRehash();
 
-            if (prev.next.getKey().equals(key)) {
-                V output = prev.next.getValue();
-                prev.next = prev.next.next;
-                size--;
+        oldBuckets = this.buckets;
+        this.buckets = (Node<K, V>[]) new Node[newSize];
+        rehashIndex = 0;
 
-                if (size < (capacity() * maxLoadFactor) / 4) {
-                    resize(capacity() / 2);
-                }
-                return output;
+        if (!incrementalResize) {
+            completeRehash();
+        }
+    }
+
+    /*
+     * Check if an incremental resize is still moving buckets to the new table
+     */
+    boolean isResizing() {
+        return oldBuckets != null;
+    }
+
+    /*
+     * Move a few buckets over if a resize is in progress
+     */
+    private void rehashStep() {
+        if (oldBuckets != null) {
+            moveBuckets(REHASH_STEPS);
+        }
+    }
+
+    /*
+     * Finish any resize in progress
+     */
+    private void completeRehash() {
+        if (oldBuckets != null) {
+            moveBuckets(oldBuckets.length);
+        }
+    }
+
+    /*
+     * Relink the nodes of the next `count` old buckets into the new table, using
+     * the hash cached in each node
+     */
+    private void moveBuckets(int count) {
+        while (count > 0 && rehashIndex < oldBuckets.length) {
+            Node<K, V> curNode = oldBuckets[rehashIndex];
+            oldBuckets[rehashIndex] = null;
+
+            while (curNode != null) {
+                Node<K, V> next = curNode.next;
+                int index = indexFor(curNode.hash, buckets);
+                curNode.next = buckets[index];
+                buckets[index] = curNode;
+                curNode = next;
             }
 
-            return null;
+            rehashIndex++;
+            count--;
+        }
+
+        if (rehashIndex == oldBuckets.length) {
+            oldBuckets = null;
         }
     }
 
+    /*
+     * Check if the map contains a particular key
+     */
+    @Override
+    public boolean containsKey(K key) {
+        return findNode(key) != null;
+    }
+
+    /*
+     * Get the value of a particular key
+     */
+    @Override
+    public V get(K key) {
+        Node<K, V> node = findNode(key);
+        return node == null ? null : node.getValue();
+    }
+
+    /*
+     * Remove a key from the hashmap
+     */
+    @Override
+    public V remove(K key) {
+        rehashStep();
+        Node<K, V> node = removeNode(key);
+        return node == null ? null : node.getValue();
+    }
+
     /*
      * Return a list of the keys in the hashmap
      */
     @Override
     public ArrayList<K> keySet() {
+        completeRehash();
         ArrayList<K> output = new ArrayList<>();
         for (Node<K, V> curNode : this.buckets) {
             Node<K, V> walker = curNode;
@@ -256,6 +382,7 @@ public class HashMap<K, V> implements MapSet<K, V>, Iterable<HashMap.Node<K, V>>
      */
     @Override
     public ArrayList<V> values() {
+        completeRehash();
         ArrayList<V> output = new ArrayList<>();
         for (Node<K, V> curNode : this.buckets) {
             Node<K, V> walker = curNode;
@@ -273,6 +400,7 @@ public class HashMap<K, V> implements MapSet<K, V>, Iterable<HashMap.Node<K, V>>
      */
     @Override
     public ArrayList<KeyValuePair<K, V>> entrySet() {
+        completeRehash();
         ArrayList<KeyValuePair<K, V>> output = new ArrayList<>();
         for (Node<K, V> curNode : this.buckets) {
             Node<K, V> walker = curNode;
@@ -285,6 +413,19 @@ public class HashMap<K, V> implements MapSet<K, V>, Iterable<HashMap.Node<K, V>>
         return output;
     }
 
+    /*
+     * Run an action on every pair in the hashmap
+     */
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        completeRehash();
+        for (Node<K, V> curNode : this.buckets) {
+            for (Node<K, V> walker = curNode; walker != null; walker = walker.next) {
+                action.accept(walker.getKey(), walker.getValue());
+            }
+        }
+    }
+
     /*
      * Returns the number of items in the map
      */
@@ -298,7 +439,8 @@ public class HashMap<K, V> implements MapSet<K, V>, Iterable<HashMap.Node<K, V>>
      */
     @Override
     public void clear() {
-        this.buckets = new Node[16];
+        this.buckets = new Node[minCapacity];
+        this.oldBuckets = null;
         this.size = 0;
     }
 
@@ -307,6 +449,7 @@ public class HashMap<K, V> implements MapSet<K, V>, Iterable<HashMap.Node<K, V>>
      */
     @Override
     public int maxDepth() {
+        completeRehash();
         int maxDepth = 0;
         int curDepth = 0;
 
@@ -331,12 +474,13 @@ public class HashMap<K, V> implements MapSet<K, V>, Iterable<HashMap.Node<K, V>>
      * String representation of the hashmap
      */
     public String toString() {
+        completeRehash();
         String output = "\n";
 
         for (Node<K, V> curNode : this.buckets) {
             Node<K, V> walker = curNode;
             while (walker != null) {
-                output += curNode.toString() + "\n";
+                output += walker.toString() + "\n";
                 walker = walker.next;
             }
         }
@@ -137,7 +137,117 @@ public class HashMapTests {
         }
     }
 
+    /*
+     * Tests of compute() and merge(), kept apart so they run before the older
+     * tests above stop at their first failed assert
+     */
+    public static void computeTests() {
+        {
+            /*
+             * Test compute() and merge() methods
+             */
+
+            // Setup
+            HashMap<String, Integer> map = new HashMap<>();
+            map.put("Dog", 21);
+            map.put("Bat", 12);
+            int merged = map.merge("Dog", 1, Integer::sum);
+            int computed = map.compute("Cat", (key, value) -> value == null ? 1 : value + 1);
+            Integer removed = map.compute("Bat", (key, value) -> null);
+
+            // Verify
+            System.out.println(merged + " == 22");
+            System.out.println(computed + " == 1");
+            System.out.println(removed + " == null");
+            System.out.println(map.size() + " == 2");
+
+            // Test
+            assert merged == 22 : "merge() faulty";
+            assert computed == 1 && map.get("Cat") == 1 : "compute() does not add item to map";
+            assert removed == null && !map.containsKey("Bat") : "compute() does not remove item from map";
+        }
+    }
+
+    /*
+     * Tests of incremental resizing, kept apart so they run before the older
+     * tests stop at their first failed assert
+     */
+    public static void incrementalResizeTests() {
+        {
+            /*
+             * Test incremental resizing keeps every key reachable while it grows
+             * and shrinks
+             */
+
+            // Setup
+            HashMap<String, Integer> map = new HashMap<>(4, .75, true);
+            boolean allFound = true;
+            for (int i = 0; i < 1000; i++) {
+                map.put("word" + i, i);
+                allFound &= map.get("word" + (i / 2)) == i / 2;
+            }
+            for (int i = 0; i < 990; i++) {
+                map.remove("word" + i);
+                allFound &= map.get("word" + 999) == 999;
+            }
+
+            // Verify
+            System.out.println(allFound + " == true");
+            System.out.println(map.size() + " == 10");
+            System.out.println(map.keySet().size() + " == 10");
+
+            // Test
+            assert allFound : "Keys lost during incremental resize";
+            assert map.size() == 10 : "Incremental resize faulty";
+            assert map.keySet().size() == 10 : "Incremental resize faulty";
+        }
+
+        {
+            /*
+             * Test putting and removing keys while a rehash is in progress
+             */
+
+            // Setup
+            HashMap<String, Integer> map = new HashMap<>(16, .75, true);
+            int added = 0;
+            while (added < 3000 || !map.isResizing()) {
+                map.put("word" + added, added);
+                added++;
+            }
+            int steps = 0;
+            boolean allFound = true;
+            while (map.isResizing()) {
+                map.put("new" + steps, steps);
+                map.remove("word" + steps);
+                allFound &= map.get("new" + steps) == steps;
+                allFound &= map.get("word" + steps) == null;
+                allFound &= map.get("word" + (added - 1 - steps)) == added - 1 - steps;
+                steps++;
+            }
+            for (int i = 0; i < added; i++) {
+                allFound &= i < steps ? map.get("word" + i) == null : map.get("word" + i) == i;
+            }
+            for (int i = 0; i < steps; i++) {
+                allFound &= map.get("new" + i) == i;
+            }
+
+            // Verify
+            System.out.println((steps > 100) + " == true");
+            System.out.println(allFound + " == true");
+            System.out.println(map.size() + " == " + added);
+            System.out.println(map.keySet().size() + " == " + added);
+
+            // Test
+            assert steps > 100 : "Incremental resize finished at once";
+            assert allFound : "Keys lost while putting and removing during a resize";
+            assert map.size() == added : "Incremental resize faulty";
+            assert map.keySet().size() == added : "Incremental resize faulty";
+        }
+    }
+
     public static void main(String[] args) {
+        computeTests();
+        incrementalResizeTests();
         hashMapTests();
     }
 }
@@ -0,0 +1,141 @@
+/*
+ * Name: Michael Tenkorang
+ * Class Purpose: Working with the HashMaps and Binary Search Trees
+ */
+
+/**
+ * HyperLogLog: estimates how many distinct words were added without storing
+ * them. Every word is hashed to 64 bits; the top `precision` bits pick one of
+ * 2^precision registers, and the register keeps the longest run of leading
+ * zeros seen in the remaining bits. The standard error of the estimate is
+ * about 1.04 / sqrt(2^precision), so the default precision of 14 gives about
+ * 0.8% in 16KB.
+ *
+ * Two HyperLogLogs with the same precision merge by taking the larger value
+ * of every register, which gives exactly the HyperLogLog of the union.
+ */
+public class HyperLogLog {
+
+    private int precision;
+    private byte[] registers;
+
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("HyperLogLog():: precision must be between 4 and 18");
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    public HyperLogLog() {
+        this(14);
+    }
+
+    /*
+     * Add a word to the set
+     */
+    public void add(CharSequence word) {
+        addHash(hash(word));
+    }
+
+    /*
+     * Add a 64-bit hash to the set
+     */
+    public void addHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // the remaining bits, with a 1 below them so the run of zeros always ends
+        long rest = (hash << precision) | (1L << (precision - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(rest) + 1);
+
+        if (registers[index] < rank) {
+            registers[index] = rank;
+        }
+    }
+
+    /*
+     * Returns the estimated number of distinct words added
+     */
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+
+        for (int i = 0; i < m; i++) {
+            sum += 1.0 / (1L << registers[i]);
+            if (registers[i] == 0) {
+                zeros++;
+            }
+        }
+
+        double estimate = alpha(m) * m * m / sum;
+
+        // with few words many registers are still empty, and counting the empty
+        // registers (linear counting) is more accurate
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+
+        return Math.round(estimate);
+    }
+
+    /*
+     * Add every word of another HyperLogLog with the same precision into this one
+     */
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("HyperLogLog.merge():: precisions differ");
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (registers[i] < other.registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    /*
+     * Returns the number of index bits
+     */
+    public int precision() {
+        return precision;
+    }
+
+    /*
+     * Forget every word
+     */
+    public void clear() {
+        registers = new byte[1 << precision];
+    }
+
+    /*
+     * Bias correction constant for m registers
+     */
+    private static double alpha(int m) {
+        if (m == 16) {
+            return .673;
+        } else if (m == 32) {
+            return .697;
+        } else if (m == 64) {
+            return .709;
+        }
+        return .7213 / (1 + 1.079 / m);
+    }
+
+    /*
+     * 64-bit hash of the characters of a word. String.hashCode() only has 32
+     * bits, which would start to collide long before the estimates stop being
+     * useful.
+     */
+    static long hash(CharSequence word) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < word.length(); i++) {
+            h ^= word.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Name: Michael Tenkorang
+ * Class Purpose: Working with the HashMaps and Binary Search Trees
+ */
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * Immutable set of words to ignore, checked without regard to case. The words
+ * are lowercased once when the filter is built and kept in an open addressing
+ * table at a load of at most 1/4, so most lookups look at a single slot. A
+ * lookup hashes and compares the characters (or ASCII bytes) of the word
+ * directly, folding case one character at a time, so checking a word never
+ * allocates. A bit mask of the word lengths in the filter rejects most words
+ * before they are even hashed.
+ *
+ * Since it never changes after it is built, one filter can be shared by every
+ * WordCounter and every thread; shared() loads ignoreWords.txt once per
+ * process.
+ */
+public class IgnoreFilter {
+
+    private static final String DEFAULT_FILE = "ignoreWords.txt";
+    private static IgnoreFilter shared;
+
+    private final String[] words;
+    private final int[] hashes;
+    private final long lengthMask;
+
+    public IgnoreFilter(Collection<String> ignoreWords) {
+        int capacity = 4;
+        while (capacity < 4 * ignoreWords.size()) {
+            capacity <<= 1;
+        }
+        words = new String[capacity];
+        hashes = new int[capacity];
+
+        long mask = 0;
+        for (String word : ignoreWords) {
+            String lower = lowercase(word);
+            if (lower.isEmpty()) {
+                continue;
+            }
+            int hash = hash(lower);
+            int index = mix(hash) & (capacity - 1);
+            while (words[index] != null && !words[index].equals(lower)) {
+                index = (index + 1) & (capacity - 1);
+            }
+            words[index] = lower;
+            hashes[index] = hash;
+            mask |= lengthBit(lower.length());
+        }
+        lengthMask = mask;
+    }
+
+    /*
+     * Returns the filter for ignoreWords.txt, reading the file the first time
+     */
+    public static synchronized IgnoreFilter shared() {
+        if (shared == null) {
+            shared = load(DEFAULT_FILE);
+        }
+        return shared;
+    }
+
+    /*
+     * Build a filter from a file with one word per line. A missing file gives
+     * an empty filter.
+     */
+    public static IgnoreFilter load(String filename) {
+        ArrayList<String> ignoreWords = new ArrayList<>();
+
+        try {
+            BufferedReader bufferedReader = new BufferedReader(new FileReader(filename));
+            String line = bufferedReader.readLine();
+
+            while (line != null) {
+                ignoreWords.add(line.trim());
+                line = bufferedReader.readLine();
+            }
+
+            bufferedReader.close();
+
+        } catch (FileNotFoundException e) {
+            System.out.println("IgnoreFilter.load():: unable to open file " + filename);
+        } catch (IOException e) {
+            System.out.println("IgnoreFilter.load():: error reading file " + filename);
+        }
+
+        return new IgnoreFilter(ignoreWords);
+    }
+
+    /*
+     * Check if a word is in the filter, ignoring case
+     */
+    public boolean contains(CharSequence word) {
+        int length = word.length();
+        if ((lengthMask & lengthBit(length)) == 0) {
+            return false;
+        }
+
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + fold(word.charAt(i));
+        }
+
+        int mask = words.length - 1;
+        for (int index = mix(hash) & mask; words[index] != null; index = (index + 1) & mask) {
+            if (hashes[index] == hash && matches(words[index], word)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Check if the ASCII word in a range of bytes is in the filter, ignoring case
+     */
+    public boolean contains(ByteBuffer buffer, int start, int length) {
+        if ((lengthMask & lengthBit(length)) == 0) {
+            return false;
+        }
+
+        int hash = 0;
+        for (int i = start; i < start + length; i++) {
+            hash = 31 * hash + fold((char) (buffer.get(i) & 0xff));
+        }
+
+        int mask = words.length - 1;
+        for (int index = mix(hash) & mask; words[index] != null; index = (index + 1) & mask) {
+            if (hashes[index] == hash && matches(words[index], buffer, start, length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Returns the number of words in the filter
+     */
+    public int size() {
+        int size = 0;
+        for (String word : words) {
+            if (word != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /*
+     * Lowercase a word the same way lookups fold each character
+     */
+    private static String lowercase(String word) {
+        StringBuilder lower = new StringBuilder(word.length());
+        for (int i = 0; i < word.length(); i++) {
+            lower.append(fold(word.charAt(i)));
+        }
+        return lower.toString();
+    }
+
+    /*
+     * Hash of a lowercase word, used for the table slots
+     */
+    private static int hash(String lower) {
+        int hash = 0;
+        for (int i = 0; i < lower.length(); i++) {
+            hash = 31 * hash + lower.charAt(i);
+        }
+        return hash;
+    }
+
+    /*
+     * Spread the bits of the hash so the low bits can index the table
+     */
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /*
+     * Lowercase a single character, with a fast path for ASCII
+     */
+    static char fold(char c) {
+        if (c < 128) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return Character.toLowerCase(c);
+    }
+
+    /*
+     * Bit of the length mask for a word length; lengths of 63 and up share a bit
+     */
+    private static long lengthBit(int length) {
+        return 1L << Math.min(length, 63);
+    }
+
+    /*
+     * Check if a word is the same as a lowercase word, ignoring case
+     */
+    private static boolean matches(String lower, CharSequence word) {
+        if (lower.length() != word.length()) {
+            return false;
+        }
+        for (int i = 0; i < lower.length(); i++) {
+            if (lower.charAt(i) != fold(word.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Check if a range of ASCII bytes is the same as a lowercase word, ignoring case
+     */
+    private static boolean matches(String lower, ByteBuffer buffer, int start, int length) {
+        if (lower.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (lower.charAt(i) != fold((char) (buffer.get(start + i) & 0xff))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
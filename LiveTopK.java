@@ -0,0 +1,206 @@
+/*
+ * Name: Michael Tenkorang
+ * Class Purpose: Working with the HashMaps and Binary Search Trees
+ */
+
+import java.util.ArrayList;
+
+/**
+ * Keeps the K words with the highest counts while the counts are still going
+ * up. It is told the new count of a word every time that word is counted, and
+ * holds the top K in an indexed min-heap: the heap position of each kept word
+ * is stored in a small hash map, so a kept word can be found and moved in
+ * O(log K) and a word that is not kept only costs one lookup and a comparison
+ * with the smallest kept count.
+ *
+ * The kept words are exactly the top K as long as counts only increase and
+ * no word is removed.
+ * Words with equal counts are ordered alphabetically, the same way TopKHeap
+ * orders them, so both give the same words for the same counts.
+ */
+public class LiveTopK {
+
+    private String[] words;
+    private int[] counts;
+    private int size;
+    private CountingHashMap<String> positions;
+
+    public LiveTopK(int k) {
+        words = new String[Math.max(k, 0)];
+        counts = new int[Math.max(k, 0)];
+        size = 0;
+        positions = new CountingHashMap<>(2 * k);
+    }
+
+    /*
+     * Tell the tracker the new count of a word
+     */
+    public void update(String word, int count) {
+        // positions hold heap index + 1 so that 0 means not kept
+        int position = positions.getCount(word) - 1;
+
+        if (position >= 0) {
+            int oldCount = counts[position];
+            counts[position] = count;
+            if (count < oldCount) {
+                siftUp(position);
+            } else {
+                siftDown(position);
+            }
+        } else if (size < words.length) {
+            words[size] = word;
+            counts[size] = count;
+            positions.put(word, size + 1);
+            siftUp(size);
+            size++;
+        } else if (size > 0 && ranksAbove(word, count, 0)) {
+            positions.remove(words[0]);
+            words[0] = word;
+            counts[0] = count;
+            positions.put(word, 1);
+            siftDown(0);
+        }
+    }
+
+    /*
+     * Stop keeping a word. The word that would have been kept in its place is
+     * not known, so fewer than K words are kept until more are counted.
+     */
+    public void remove(String word) {
+        int position = positions.getCount(word) - 1;
+        if (position < 0) {
+            return;
+        }
+
+        positions.remove(word);
+        size--;
+        if (position < size) {
+            words[position] = words[size];
+            counts[position] = counts[size];
+            positions.put(words[position], position + 1);
+            siftUp(position);
+            siftDown(position);
+        }
+        words[size] = null;
+    }
+
+    /*
+     * Returns the count of a kept word, or 0 if the word is not kept
+     */
+    public int count(String word) {
+        int position = positions.getCount(word) - 1;
+        return position >= 0 ? counts[position] : 0;
+    }
+
+    /*
+     * Returns the number of words the tracker can keep
+     */
+    public int capacity() {
+        return words.length;
+    }
+
+    /*
+     * Returns the number of words kept
+     */
+    public int size() {
+        return size;
+    }
+
+    /*
+     * Returns the smallest kept count, or 0 if fewer than K words are kept
+     */
+    public int minCount() {
+        return size < words.length ? 0 : counts[0];
+    }
+
+    /*
+     * Returns the kept words with their counts, highest count first
+     */
+    public ArrayList<MapSet.KeyValuePair<String, Integer>> sortedEntries() {
+        ArrayList<MapSet.KeyValuePair<String, Integer>> output = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            output.add(new MapSet.KeyValuePair<String, Integer>(words[i], counts[i]));
+        }
+
+        output.sort((a, b) -> {
+            if (!a.getValue().equals(b.getValue())) {
+                return b.getValue() - a.getValue();
+            }
+            return a.getKey().compareTo(b.getKey());
+        });
+
+        return output;
+    }
+
+    /*
+     * Forget every word
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            words[i] = null;
+        }
+        size = 0;
+        positions.clear();
+    }
+
+    /*
+     * Check if a word and count rank above the entry at index i, meaning a
+     * higher count, or the same count and an earlier word
+     */
+    private boolean ranksAbove(String word, int count, int i) {
+        if (count != counts[i]) {
+            return count > counts[i];
+        }
+        return word.compareTo(words[i]) < 0;
+    }
+
+    /*
+     * Move the entry at index i up until its parent ranks below it
+     */
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (!ranksAbove(words[parent], counts[parent], i)) {
+                break;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    /*
+     * Move the entry at index i down until both children rank above it
+     */
+    private void siftDown(int i) {
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && ranksAbove(words[smallest], counts[smallest], left)) {
+                smallest = left;
+            }
+            if (right < size && ranksAbove(words[smallest], counts[smallest], right)) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    /*
+     * Swap two entries of the heap and their positions
+     */
+    private void swap(int i, int j) {
+        String word = words[i];
+        words[i] = words[j];
+        words[j] = word;
+        int count = counts[i];
+        counts[i] = counts[j];
+        counts[j] = count;
+        positions.put(words[i], i + 1);
+        positions.put(words[j], j + 1);
+    }
+}
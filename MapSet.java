@@ -12,6 +12,8 @@
  * @author srtaylor, bmaxwell, mbender
  */
 import java.util.ArrayList;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 
 public interface MapSet<K, V> {
 
@@ -66,6 +68,37 @@ public interface MapSet<K, V> {
      */
     public V put(K key, V value);
 
+    /**
+     * Attempts to compute a mapping for the specified key and its current
+     * mapped value (or {@code null} if there is no current mapping), finding
+     * the key only once. If the remapping function returns {@code null}, the
+     * mapping is removed (or remains absent if initially absent).
+     *
+     * @param key               key with which the specified value is to be
+     *                          associated
+     * @param remappingFunction the function to compute a value
+     * @return the new value associated with the specified key, or null if none
+     */
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction);
+
+    /**
+     * If the specified key is not already associated with a value, associates
+     * it with the given value. Otherwise, replaces the associated value with
+     * the results of the given remapping function, or removes it if the result
+     * is {@code null}.
+     *
+     * @param key               key with which the resulting value is to be
+     *                          associated
+     * @param value             the value to be used if there is no existing
+     *                          value
+     * @param remappingFunction the function to recompute a value if present
+     * @return the new value associated with the specified key, or null if no
+     *         value is associated with the key
+     */
+    public default V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        return compute(key, (k, oldValue) -> oldValue == null ? value : remappingFunction.apply(oldValue, value));
+    }
+
     /**
      * Returns {@code true} if this map contains a mapping for the
      * specified key to a value.
@@ -123,6 +156,14 @@ public interface MapSet<K, V> {
      */
     public ArrayList<KeyValuePair<K, V>> entrySet();
 
+    /**
+     * Performs the given action for each entry in this map, in the same order
+     * as the keys as returned by keySet(), without copying the entries.
+     *
+     * @param action The action to be performed for each entry
+     */
+    public void forEach(BiConsumer<? super K, ? super V> action);
+
     /**
      * Returns the number of key-value mappings in this map.
      *
@@ -0,0 +1,774 @@
+/*
+ * Name: Michael Tenkorang
+ * Class Purpose: Working with the HashMaps and Binary Search Trees
+ */
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * A map from words to int counts that lives outside the Java heap. Both the
+ * table and the word bytes are direct ByteBuffers: the table holds 12 bytes
+ * per slot (arena offset + 1, hash, count) and the arena holds every word's
+ * UTF-8 bytes after a varint length, as in ArenaCountingMap. The garbage
+ * collector never has to walk any of it, so a huge vocabulary does not make
+ * old-generation collections slower.
+ *
+ * The map never uses more than `maxBytes` of direct memory for its table and
+ * arena, counting the moment while a buffer is copied into a larger one and
+ * both are held. Several maps can share one Budget, which caps the direct
+ * memory of all of them together. When growing would go over the budget, the
+ * word being added is rejected with an IllegalStateException and the map is
+ * left as it was, so every word already counted can still be read. The same
+ * happens once the table has 2^27 slots, the most whose offsets fit an int.
+ * close() frees the memory right away and gives it back to the budget; after
+ * that the map cannot be used.
+ */
+public class OffHeapCountingMap implements ByteCountingMapSet, AutoCloseable {
+
+    private static final int SLOT_SIZE = 12;
+    private static final double MAX_LOAD_FACTOR = .7;
+
+    /*
+     * Most slots the table can have, so every byte offset in it fits an int
+     */
+    private static final int MAX_CAPACITY = Integer.highestOneBit(Integer.MAX_VALUE / SLOT_SIZE);
+
+    /**
+     * A number of bytes of direct memory that one or more maps can take from
+     * and give back to, from any thread.
+     */
+    public static class Budget {
+        private final long maxBytes;
+        private final AtomicLong used;
+
+        public Budget(long maxBytes) {
+            this.maxBytes = maxBytes;
+            this.used = new AtomicLong();
+        }
+
+        /*
+         * Returns the most direct memory the maps may hold together
+         */
+        public long maxBytes() {
+            return maxBytes;
+        }
+
+        /*
+         * Returns the direct memory the maps hold now
+         */
+        public long usedBytes() {
+            return used.get();
+        }
+
+        /*
+         * Take bytes from the budget, or return false without taking any if
+         * there are not enough left
+         */
+        boolean tryTake(long bytes) {
+            while (true) {
+                long current = used.get();
+                if (current + bytes > maxBytes) {
+                    return false;
+                }
+                if (used.compareAndSet(current, current + bytes)) {
+                    return true;
+                }
+            }
+        }
+
+        /*
+         * Give bytes back to the budget
+         */
+        void giveBack(long bytes) {
+            used.addAndGet(-bytes);
+        }
+    }
+
+    /*
+     * Unsafe instance and its invokeCleaner() method, or null when they are
+     * not available
+     */
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // buffers are freed once they are garbage collected
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private Budget budget;
+    private ByteBuffer table;
+    private int capacity;
+    private ByteBuffer arena;
+    private int arenaSize;
+    private int size;
+
+    public OffHeapCountingMap(Budget budget, int initialCapacity) {
+        if (initialCapacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("OffHeapCountingMap():: initialCapacity is more than "
+                    + MAX_CAPACITY + " slots");
+        }
+        int capacity = 16;
+        while (capacity < initialCapacity) {
+            capacity <<= 1;
+        }
+        this.budget = budget;
+        take((long) capacity * SLOT_SIZE + capacity * 8L);
+        this.capacity = capacity;
+        try {
+            table = ByteBuffer.allocateDirect(capacity * SLOT_SIZE);
+            arena = ByteBuffer.allocateDirect(capacity * 8);
+        } catch (RuntimeException | Error e) {
+            if (table != null) {
+                free(table);
+                table = null;
+            }
+            budget.giveBack((long) capacity * SLOT_SIZE + capacity * 8L);
+            throw e;
+        }
+        arenaSize = 0;
+        size = 0;
+    }
+
+    public OffHeapCountingMap(Budget budget) {
+        this(budget, 1024);
+    }
+
+    public OffHeapCountingMap(long maxBytes, int initialCapacity) {
+        this(new Budget(maxBytes), initialCapacity);
+    }
+
+    public OffHeapCountingMap(long maxBytes) {
+        this(new Budget(maxBytes), 1024);
+    }
+
+    /*
+     * Returns the most direct memory this map, and any map sharing its
+     * budget, may use
+     */
+    public long maxBytes() {
+        return budget.maxBytes();
+    }
+
+    /*
+     * Returns the budget this map takes its direct memory from
+     */
+    public Budget budget() {
+        return budget;
+    }
+
+    /*
+     * Returns the direct memory held by the table and the arena
+     */
+    public long allocatedBytes() {
+        checkOpen();
+        return (long) table.capacity() + arena.capacity();
+    }
+
+    /*
+     * Free the direct memory now instead of waiting for the garbage collector
+     */
+    @Override
+    public void close() {
+        if (table != null) {
+            long bytes = allocatedBytes();
+            free(table);
+            free(arena);
+            budget.giveBack(bytes);
+            table = null;
+            arena = null;
+            size = 0;
+        }
+    }
+
+    /*
+     * Check if close() has been called
+     */
+    public boolean isClosed() {
+        return table == null;
+    }
+
+    /*
+     * Get the count of the word in a range of bytes
+     */
+    @Override
+    public int getCount(ByteBuffer buffer, int start, int length) {
+        int index = slot(buffer, start, length, hash(buffer, start, length));
+        return isEmpty(index) ? 0 : count(index);
+    }
+
+    /*
+     * Add to the count of the word in a range of bytes
+     */
+    @Override
+    public int add(ByteBuffer buffer, int start, int length, int delta) {
+        int hash = hash(buffer, start, length);
+        int index = slot(buffer, start, length, hash);
+
+        if (!isEmpty(index)) {
+            setCount(index, count(index) + delta);
+            return count(index);
+        }
+
+        if (makeRoom(length)) {
+            index = slot(buffer, start, length, hash);
+        }
+        insert(index, storeBytes(buffer, start, length), hash, delta);
+        return delta;
+    }
+
+    /*
+     * Add to the count of the word in a range of bytes if it is already in the map
+     */
+    @Override
+    public int addIfPresent(ByteBuffer buffer, int start, int length, int delta) {
+        int index = slot(buffer, start, length, hash(buffer, start, length));
+
+        if (isEmpty(index)) {
+            return 0;
+        }
+
+        setCount(index, count(index) + delta);
+        return count(index);
+    }
+
+    /*
+     * Get the count of a word
+     */
+    @Override
+    public int getCount(String key) {
+        ByteBuffer bytes = encode(key);
+        return getCount(bytes, 0, bytes.limit());
+    }
+
+    /*
+     * Add to the count of a word
+     */
+    @Override
+    public int add(String key, int delta) {
+        ByteBuffer bytes = encode(key);
+        return add(bytes, 0, bytes.limit(), delta);
+    }
+
+    /*
+     * Add to the count of a word that is already in the map
+     */
+    @Override
+    public int addIfPresent(String key, int delta) {
+        ByteBuffer bytes = encode(key);
+        return addIfPresent(bytes, 0, bytes.limit(), delta);
+    }
+
+    /*
+     * Adds pair to the map
+     */
+    @Override
+    public Integer put(String key, Integer value) {
+        if (value == null) {
+            return null;
+        }
+
+        ByteBuffer bytes = encode(key);
+        int hash = hash(bytes, 0, bytes.limit());
+        int index = slot(bytes, 0, bytes.limit(), hash);
+
+        if (!isEmpty(index)) {
+            int oldVal = count(index);
+            setCount(index, value);
+            return oldVal;
+        }
+
+        if (makeRoom(bytes.limit())) {
+            index = slot(bytes, 0, bytes.limit(), hash);
+        }
+        insert(index, storeBytes(bytes, 0, bytes.limit()), hash, value);
+        return null;
+    }
+
+    /*
+     * Compute a new count for a word, finding its slot only once
+     */
+    @Override
+    public Integer compute(String key, BiFunction<? super String, ? super Integer, ? extends Integer> remappingFunction) {
+        ByteBuffer bytes = encode(key);
+        int hash = hash(bytes, 0, bytes.limit());
+        int index = slot(bytes, 0, bytes.limit(), hash);
+
+        if (!isEmpty(index)) {
+            Integer newVal = remappingFunction.apply(key, count(index));
+            if (newVal == null) {
+                removeSlot(index);
+            } else {
+                setCount(index, newVal);
+            }
+            return newVal;
+        }
+
+        Integer newVal = remappingFunction.apply(key, null);
+        if (newVal != null) {
+            if (makeRoom(bytes.limit())) {
+                index = slot(bytes, 0, bytes.limit(), hash);
+            }
+            insert(index, storeBytes(bytes, 0, bytes.limit()), hash, newVal);
+        }
+        return newVal;
+    }
+
+    /*
+     * Check if the map contains a particular word
+     */
+    @Override
+    public boolean containsKey(String key) {
+        ByteBuffer bytes = encode(key);
+        return !isEmpty(slot(bytes, 0, bytes.limit(), hash(bytes, 0, bytes.limit())));
+    }
+
+    /*
+     * Get the count of a particular word
+     */
+    @Override
+    public Integer get(String key) {
+        ByteBuffer bytes = encode(key);
+        int index = slot(bytes, 0, bytes.limit(), hash(bytes, 0, bytes.limit()));
+        return isEmpty(index) ? null : count(index);
+    }
+
+    /*
+     * Remove a word from the map. Its bytes stay in the arena.
+     */
+    @Override
+    public Integer remove(String key) {
+        ByteBuffer bytes = encode(key);
+        int index = slot(bytes, 0, bytes.limit(), hash(bytes, 0, bytes.limit()));
+
+        if (isEmpty(index)) {
+            return null;
+        }
+
+        int oldVal = count(index);
+        removeSlot(index);
+        return oldVal;
+    }
+
+    /*
+     * Offer every word to a TopKHeap, only creating Strings for the words
+     * whose count could make it into the heap
+     */
+    @Override
+    public void offerTo(TopKHeap heap) {
+        checkOpen();
+        for (int i = 0; i < capacity; i++) {
+            if (!isEmpty(i) && heap.accepts(count(i))) {
+                heap.offer(keyAt(i), count(i));
+            }
+        }
+    }
+
+    /*
+     * Returns a list of the words in the map
+     */
+    @Override
+    public ArrayList<String> keySet() {
+        ArrayList<String> output = new ArrayList<>();
+        forEachCount((word, count) -> output.add(word));
+        return output;
+    }
+
+    /*
+     * Returns a list of the counts in the map
+     */
+    @Override
+    public ArrayList<Integer> values() {
+        checkOpen();
+        ArrayList<Integer> output = new ArrayList<>();
+        for (int i = 0; i < capacity; i++) {
+            if (!isEmpty(i)) {
+                output.add(count(i));
+            }
+        }
+        return output;
+    }
+
+    /*
+     * Returns the list of all the pairs in the map
+     */
+    @Override
+    public ArrayList<KeyValuePair<String, Integer>> entrySet() {
+        ArrayList<KeyValuePair<String, Integer>> output = new ArrayList<>();
+        forEachCount((word, count) -> output.add(new KeyValuePair<String, Integer>(word, count)));
+        return output;
+    }
+
+    /*
+     * Run an action on every pair in the map
+     */
+    @Override
+    public void forEach(BiConsumer<? super String, ? super Integer> action) {
+        forEachCount(action::accept);
+    }
+
+    /*
+     * Run an action on every word in the map with its count
+     */
+    @Override
+    public void forEachCount(ObjIntConsumer<? super String> action) {
+        checkOpen();
+        for (int i = 0; i < capacity; i++) {
+            if (!isEmpty(i)) {
+                action.accept(keyAt(i), count(i));
+            }
+        }
+    }
+
+    /*
+     * Returns the number of words in the map
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /*
+     * Empty the map, keeping the memory it already holds
+     */
+    @Override
+    public void clear() {
+        checkOpen();
+        for (int i = 0; i < capacity * SLOT_SIZE; i += 8) {
+            table.putLong(i, 0);
+        }
+        arenaSize = 0;
+        size = 0;
+    }
+
+    /*
+     * Get the longest number of slots probed to find a word
+     */
+    @Override
+    public int maxDepth() {
+        checkOpen();
+        int mask = capacity - 1;
+        int maxDepth = 0;
+
+        for (int i = 0; i < capacity; i++) {
+            if (!isEmpty(i)) {
+                int depth = ((i - (mix(hashOf(i)) & mask)) & mask) + 1;
+                if (depth > maxDepth) {
+                    maxDepth = depth;
+                }
+            }
+        }
+
+        return maxDepth;
+    }
+
+    /*
+     * String representation of the map
+     */
+    public String toString() {
+        StringBuilder output = new StringBuilder("\n");
+        forEachCount((word, count) -> output.append("<" + word + " -> " + count + ">\n"));
+        return output.toString();
+    }
+
+    /*
+     * Fields of a slot. An offset of 0 means the slot is empty, so offsets are
+     * stored plus one.
+     */
+    private boolean isEmpty(int index) {
+        return table.getInt(index * SLOT_SIZE) == 0;
+    }
+
+    private int offsetOf(int index) {
+        return table.getInt(index * SLOT_SIZE) - 1;
+    }
+
+    private int hashOf(int index) {
+        return table.getInt(index * SLOT_SIZE + 4);
+    }
+
+    private int count(int index) {
+        return table.getInt(index * SLOT_SIZE + 8);
+    }
+
+    private void setCount(int index, int count) {
+        table.putInt(index * SLOT_SIZE + 8, count);
+    }
+
+    private void setSlot(ByteBuffer target, int index, int offset, int hash, int count) {
+        target.putInt(index * SLOT_SIZE, offset + 1);
+        target.putInt(index * SLOT_SIZE + 4, hash);
+        target.putInt(index * SLOT_SIZE + 8, count);
+    }
+
+    /*
+     * Create the String of the word in a slot
+     */
+    private String keyAt(int index) {
+        int offset = offsetOf(index);
+        int length = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = arena.get(offset++);
+            length |= (b & 0x7f) << shift;
+            shift += 7;
+        } while (b < 0);
+
+        byte[] bytes = new byte[length];
+        arena.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /*
+     * Returns the slot holding the word in a range of bytes, or the empty slot
+     * where it would go
+     */
+    private int slot(ByteBuffer buffer, int start, int length, int hash) {
+        checkOpen();
+        int mask = capacity - 1;
+        int index = mix(hash) & mask;
+
+        while (!isEmpty(index)) {
+            if (hashOf(index) == hash && matches(index, buffer, start, length)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+
+        return index;
+    }
+
+    /*
+     * Check if the word in a slot is the same as a range of bytes
+     */
+    private boolean matches(int index, ByteBuffer buffer, int start, int length) {
+        int offset = offsetOf(index);
+        int stored = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = arena.get(offset++);
+            stored |= (b & 0x7f) << shift;
+            shift += 7;
+        } while (b < 0);
+
+        if (stored != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (arena.get(offset + i) != buffer.get(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Hash of a range of bytes. For ASCII this is the same as String.hashCode().
+     */
+    private static int hash(ByteBuffer buffer, int start, int length) {
+        int hash = 0;
+        for (int i = start; i < start + length; i++) {
+            hash = 31 * hash + (buffer.get(i) & 0xff);
+        }
+        return hash;
+    }
+
+    /*
+     * Spread the bits of the hash so the low bits can index the table
+     */
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /*
+     * UTF-8 bytes of a word
+     */
+    private static ByteBuffer encode(String key) {
+        return ByteBuffer.wrap(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /*
+     * Grow the table and the arena so one more word of `length` bytes fits.
+     * The most memory held at once, while the old arena and then the old
+     * table are still held next to their copies, is taken from the budget
+     * before anything changes. Returns true if the table was resized, which
+     * moves the slots.
+     */
+    private boolean makeRoom(int length) {
+        boolean growTable = size + 1 > MAX_LOAD_FACTOR * capacity;
+        if (growTable && capacity >= MAX_CAPACITY) {
+            throw new IllegalStateException("OffHeapCountingMap:: table cannot grow past " + MAX_CAPACITY
+                    + " slots, with " + size + " words in the map");
+        }
+        long oldTableBytes = table.capacity();
+        long oldArenaBytes = arena.capacity();
+        long tableBytes = growTable ? 2 * oldTableBytes : oldTableBytes;
+
+        long needed = (long) arenaSize + length + 5;
+        long arenaBytes = arena.capacity();
+        while (arenaBytes < needed) {
+            arenaBytes *= 2;
+        }
+        if (arenaBytes > Integer.MAX_VALUE) {
+            arenaBytes = Integer.MAX_VALUE;
+            if (needed > arenaBytes) {
+                throw new IllegalStateException("OffHeapCountingMap:: word bytes do not fit in one arena of 2GB");
+            }
+        }
+
+        if (!growTable && arenaBytes == oldArenaBytes) {
+            return false;
+        }
+
+        // the arena is copied first, then the table
+        long held = oldTableBytes + oldArenaBytes;
+        long peak = Math.max(oldTableBytes + oldArenaBytes + (arenaBytes > oldArenaBytes ? arenaBytes : 0),
+                (growTable ? oldTableBytes : 0) + tableBytes + arenaBytes);
+        take(peak - held);
+
+        try {
+            if (arenaBytes > oldArenaBytes) {
+                ByteBuffer larger = ByteBuffer.allocateDirect((int) arenaBytes);
+                ByteBuffer used = arena.duplicate();
+                used.position(0).limit(arenaSize);
+                larger.put(used);
+                free(arena);
+                arena = larger;
+            }
+            if (growTable) {
+                resize(capacity * 2);
+            }
+        } finally {
+            // keep what is held now, even if allocating one of the buffers failed
+            budget.giveBack(peak - ((long) table.capacity() + arena.capacity()));
+        }
+        return growTable;
+    }
+
+    /*
+     * Take bytes from the budget, or fail if there are not enough left
+     */
+    private void take(long bytes) {
+        if (!budget.tryTake(bytes)) {
+            throw new IllegalStateException("OffHeapCountingMap:: byte budget of " + budget.maxBytes()
+                    + " exceeded, " + bytes + " more bytes needed with " + size + " words in the map and "
+                    + budget.usedBytes() + " bytes in use");
+        }
+    }
+
+    private void checkOpen() {
+        if (table == null) {
+            throw new IllegalStateException("OffHeapCountingMap:: map is closed");
+        }
+    }
+
+    /*
+     * Copy a range of bytes to the end of the arena, after its length, and
+     * return its offset. makeRoom() has already made space.
+     */
+    private int storeBytes(ByteBuffer buffer, int start, int length) {
+        int offset = arenaSize;
+
+        int value = length;
+        while ((value & ~0x7f) != 0) {
+            arena.put(arenaSize++, (byte) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        arena.put(arenaSize++, (byte) value);
+
+        for (int i = 0; i < length; i++) {
+            arena.put(arenaSize++, buffer.get(start + i));
+        }
+        return offset;
+    }
+
+    /*
+     * Put a word stored at an arena offset in an empty slot
+     */
+    private void insert(int index, int offset, int hash, int count) {
+        setSlot(table, index, offset, hash, count);
+        size++;
+    }
+
+    /*
+     * Empty a slot and shift back the words after it that would no longer be
+     * found, so lookups can keep stopping at the first empty slot
+     */
+    private void removeSlot(int index) {
+        int mask = capacity - 1;
+        int hole = index;
+        int next = (hole + 1) & mask;
+
+        while (!isEmpty(next)) {
+            int home = mix(hashOf(next)) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                setSlot(table, hole, offsetOf(next), hashOf(next), count(next));
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+
+        setSlot(table, hole, -1, 0, 0);
+        size--;
+    }
+
+    /*
+     * Move every word into a new table. The arena is not touched.
+     */
+    private void resize(int newCapacity) {
+        ByteBuffer newTable = ByteBuffer.allocateDirect(newCapacity * SLOT_SIZE);
+        int mask = newCapacity - 1;
+
+        for (int i = 0; i < capacity; i++) {
+            if (!isEmpty(i)) {
+                int index = mix(hashOf(i)) & mask;
+                while (newTable.getInt(index * SLOT_SIZE) != 0) {
+                    index = (index + 1) & mask;
+                }
+                setSlot(newTable, index, offsetOf(i), hashOf(i), count(i));
+            }
+        }
+
+        free(table);
+        table = newTable;
+        capacity = newCapacity;
+    }
+
+    /*
+     * Release a direct buffer's memory now. There is no public way to do this
+     * before Java 19's MemorySegment, so this uses sun.misc.Unsafe's
+     * invokeCleaner() when it is available and otherwise leaves the buffer to
+     * the garbage collector.
+     */
+    private static void free(ByteBuffer buffer) {
+        if (INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // the buffer is freed once it is garbage collected
+        }
+    }
+}
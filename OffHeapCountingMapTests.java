@@ -0,0 +1,221 @@
+/*
+ * Name: Michael Tenkorang
+ * Class Purpose: Working with the HashMaps and Binary Search Trees
+ */
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class OffHeapCountingMapTests {
+
+    public static void offHeapCountingMapTests() {
+        {
+            /*
+             * Test constructor and size() method
+             */
+            // Setup
+            OffHeapCountingMap map = new OffHeapCountingMap(1 << 20);
+
+            // Verify
+            System.out.println(map.size() + " == 0");
+            System.out.println((map.allocatedBytes() <= map.maxBytes()) + " == true");
+
+            // Test
+            assert map.size() == 0;
+            assert map.allocatedBytes() <= map.maxBytes() : "constructor over budget";
+        }
+
+        {
+            /*
+             * Test counting from bytes and from Strings finds the same words
+             */
+            // Setup
+            OffHeapCountingMap map = new OffHeapCountingMap(1 << 20);
+            ByteBuffer bytes = ByteBuffer.wrap("xx Michael Professor".getBytes(StandardCharsets.US_ASCII));
+            map.add(bytes, 3, 7, 1);
+            map.add("Michael", 1);
+            int missing = map.addIfPresent(bytes, 11, 9, 1);
+            map.add("Professor", 5);
+            int present = map.addIfPresent(bytes, 11, 9, 1);
+
+            // Verify
+            System.out.println(map.getCount("Michael") + " == 2");
+            System.out.println(map.getCount(bytes, 3, 7) + " == 2");
+            System.out.println(missing + " == 0");
+            System.out.println(present + " == 6");
+            System.out.println(map.keySet().size() + " == 2");
+
+            // Test
+            assert map.getCount("Michael") == 2 : "add() faulty";
+            assert map.getCount(bytes, 3, 7) == 2 : "getCount() from bytes faulty";
+            assert missing == 0 : "addIfPresent() adds new keys";
+            assert present == 6 : "addIfPresent() faulty";
+            assert map.keySet().size() == 2 : "keySet() faulty";
+        }
+
+        {
+            /*
+             * Test put(), get() and remove() after resizing, with non-ASCII and
+             * long words
+             */
+            // Setup
+            OffHeapCountingMap map = new OffHeapCountingMap(1 << 20);
+            String longWord = "a".repeat(300);
+            for (int i = 0; i < 1000; i++) {
+                map.put("word" + i, i);
+            }
+            for (int i = 0; i < 1000; i += 2) {
+                map.remove("word" + i);
+            }
+            map.put("caf\u00e9", 7);
+            map.put(longWord, 3);
+
+            // Verify
+            System.out.println(map.size() + " == 502");
+            System.out.println(map.get("word501") + " == 501");
+            System.out.println(map.get("word500") + " == null");
+            System.out.println(map.get("caf\u00e9") + " == 7");
+            System.out.println(map.get(longWord) + " == 3");
+
+            // Test
+            assert map.size() == 502 : "remove() faulty";
+            assert map.get("word501") == 501 : "remove() loses other keys";
+            assert map.get("word500") == null : "remove() does not remove item from map";
+            assert map.get("caf\u00e9") == 7 : "non-ASCII words faulty";
+            assert map.get(longWord) == 3 : "long words faulty";
+            assert map.keySet().contains("caf\u00e9") : "keySet() faulty";
+        }
+
+        {
+            /*
+             * Test adding past the byte budget fails without losing any counts
+             */
+            // Setup
+            OffHeapCountingMap map = new OffHeapCountingMap(1 << 16);
+            int added = 0;
+            boolean overBudget = false;
+            try {
+                while (true) {
+                    map.add("word" + added, 1);
+                    added++;
+                }
+            } catch (IllegalStateException e) {
+                overBudget = true;
+            }
+            boolean allCounted = true;
+            for (int i = 0; i < added; i++) {
+                allCounted &= map.getCount("word" + i) == 1;
+            }
+
+            // Verify
+            System.out.println(overBudget + " == true");
+            System.out.println(map.size() + " == " + added);
+            System.out.println(allCounted + " == true");
+            System.out.println((map.allocatedBytes() <= map.maxBytes()) + " == true");
+
+            // Test
+            assert overBudget : "budget not enforced";
+            assert map.size() == added : "failed add() changes the map";
+            assert allCounted : "failed add() loses counts";
+            assert map.allocatedBytes() <= map.maxBytes() : "map over budget";
+        }
+
+        {
+            /*
+             * Test the budget covers the old and new table while resizing, and
+             * is shared between maps until they are closed
+             */
+            // Setup
+            OffHeapCountingMap resizing = new OffHeapCountingMap(700, 16);
+            int added = 0;
+            try {
+                while (true) {
+                    resizing.add("w" + added, 1);
+                    added++;
+                }
+            } catch (IllegalStateException e) {
+                // the 12th word needs the old and new table, 704 bytes in all
+            }
+            OffHeapCountingMap.Budget budget = new OffHeapCountingMap.Budget(1 << 20);
+            OffHeapCountingMap first = new OffHeapCountingMap(budget);
+            OffHeapCountingMap second = new OffHeapCountingMap(budget);
+            for (int i = 0; i < 5000; i++) {
+                first.add("first" + i, 1);
+                second.add("second" + i, 1);
+            }
+            long bothUsed = budget.usedBytes();
+            long bothAllocated = first.allocatedBytes() + second.allocatedBytes();
+            long secondAllocated = second.allocatedBytes();
+            first.close();
+
+            // Verify
+            System.out.println(added + " == 11");
+            System.out.println(bothUsed + " == " + bothAllocated);
+            System.out.println(budget.usedBytes() + " == " + secondAllocated);
+
+            // Test
+            assert added == 11 : "resize peak not counted against the budget";
+            assert bothUsed == bothAllocated : "shared budget faulty";
+            assert budget.usedBytes() == secondAllocated : "close() does not give back to the budget";
+        }
+
+        {
+            /*
+             * Test a table too large for int offsets is refused without taking
+             * from the budget
+             */
+            // Setup
+            OffHeapCountingMap.Budget budget = new OffHeapCountingMap.Budget(1L << 40);
+            boolean refused = false;
+            try {
+                new OffHeapCountingMap(budget, 1 << 28);
+            } catch (IllegalArgumentException e) {
+                refused = true;
+            }
+
+            // Verify
+            System.out.println(refused + " == true");
+            System.out.println(budget.usedBytes() + " == 0");
+
+            // Test
+            assert refused : "table past the largest capacity accepted";
+            assert budget.usedBytes() == 0 : "refused map takes from the budget";
+        }
+
+        {
+            /*
+             * Test clear() and close() methods
+             */
+            // Setup
+            OffHeapCountingMap map = new OffHeapCountingMap(1 << 20);
+            map.add("Dog", 21);
+            map.add("Bat", 12);
+            map.clear();
+            int sizeAfterClear = map.size();
+            int depthAfterClear = map.maxDepth();
+            map.close();
+            boolean closedFails = false;
+            try {
+                map.add("Dog", 1);
+            } catch (IllegalStateException e) {
+                closedFails = true;
+            }
+
+            // Verify
+            System.out.println(sizeAfterClear + " == 0");
+            System.out.println(depthAfterClear + " == 0");
+            System.out.println(map.isClosed() + " == true");
+            System.out.println(closedFails + " == true");
+
+            // Test
+            assert sizeAfterClear == 0 : "clear() faulty";
+            assert depthAfterClear == 0 : "clear() faulty";
+            assert map.isClosed() : "close() faulty";
+            assert closedFails : "map usable after close()";
+        }
+    }
+
+    public static void main(String[] args) {
+        offHeapCountingMapTests();
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Name: Michael Tenkorang
+ * Class Purpose: Working with the HashMaps and Binary Search Trees
+ */
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Counts several years of comments at the same time. Every year file is
+ * counted by its own WordCounter on its own worker thread, so no map is ever
+ * shared between threads. Once all the years are done, their counts are
+ * merged into one combined WordCounter, and the per-year counters are kept.
+ * Each call to countYears() starts over, closing the counters of the last call.
+ */
+public class ParallelWordCounter {
+
+    private int threads;
+    private HashMap<Integer, WordCounter> yearCounters;
+    private WordCounter combined;
+
+    public ParallelWordCounter(String data_structure, int threads) {
+        this.threads = threads;
+        yearCounters = new HashMap<>();
+        combined = new WordCounter(data_structure);
+    }
+
+    public ParallelWordCounter(String data_structure) {
+        this(data_structure, Runtime.getRuntime().availableProcessors());
+    }
+
+    /*
+     * Count the years from firstYear to lastYear (inclusive) in parallel, then
+     * merge them, replacing the counts of any earlier call. Returns the time
+     * taken in milliseconds.
+     */
+    public double countYears(int firstYear, int lastYear) {
+        double start = System.currentTimeMillis();
+
+        reset();
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, lastYear - firstYear + 1));
+        ArrayList<Future<WordCounter>> futures = new ArrayList<>();
+
+        for (int year = firstYear; year <= lastYear; year++) {
+            futures.add(executor.submit(new YearTask(year)));
+        }
+
+        try {
+            for (int year = firstYear; year <= lastYear; year++) {
+                WordCounter counter = futures.get(year - firstYear).get();
+                yearCounters.put(year, counter);
+                combined.merge(counter);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("ParallelWordCounter.countYears():: interrupted while counting", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        double end = System.currentTimeMillis();
+
+        return end - start;
+    }
+
+    /*
+     * Forget the counts of an earlier call, freeing its per-year counters
+     */
+    private void reset() {
+        for (WordCounter counter : yearCounters.values()) {
+            counter.close();
+        }
+        yearCounters.clear();
+        combined.clearMap();
+    }
+
+    /*
+     * Counts a single year file into a private WordCounter
+     */
+    private class YearTask implements Callable<WordCounter> {
+        private int year;
+
+        public YearTask(int year) {
+            this.year = year;
+        }
+
+        @Override
+        public WordCounter call() {
+            WordCounter counter = combined.newPartial();
+            counter.countWords(fileName(year));
+            return counter;
+        }
+    }
+
+    /*
+     * Name of the file holding the comments of a year
+     */
+    public static String fileName(int year) {
+        return "reddit_comments_" + year + ".txt";
+    }
+
+    /*
+     * Get the counts of a single year, or null if that year was not counted
+     */
+    public WordCounter getYear(int year) {
+        return yearCounters.get(year);
+    }
+
+    /*
+     * Get the number of distinct words used across the counted years from
+     * firstYear to lastYear (inclusive). Approximate counters union their
+     * HyperLogLogs; exact counters union their words.
+     */
+    public long uniqueWordCount(int firstYear, int lastYear) {
+        HyperLogLog sketchUnion = null;
+        CountingHashMap<String> exactUnion = new CountingHashMap<>();
+
+        for (int year = firstYear; year <= lastYear; year++) {
+            WordCounter counter = yearCounters.get(year);
+            if (counter == null) {
+                continue;
+            }
+
+            HyperLogLog sketch = counter.uniqueWordSketch();
+            if (sketch != null) {
+                if (sketchUnion == null) {
+                    sketchUnion = new HyperLogLog(sketch.precision());
+                }
+                sketchUnion.merge(sketch);
+            } else {
+                counter.storageMap.forEach((word, count) -> exactUnion.put(word, 1));
+            }
+        }
+
+        return sketchUnion != null ? sketchUnion.estimate() : exactUnion.size();
+    }
+
+    /*
+     * Get the counts of all the years together
+     */
+    public WordCounter getCombined() {
+        return combined;
+    }
+
+    public static void main(String[] args) {
+        ParallelWordCounter counter = new ParallelWordCounter("hashmap");
+        double timeTaken = counter.countYears(2008, 2015);
+
+        System.out.println("Done: " + timeTaken + "ms");
+        for (int year = 2008; year <= 2015; year++) {
+            System.out.println(year + " " + counter.getYear(year).mostFrequentWords());
+        }
+        System.out.println("All years " + counter.getCombined().mostFrequentWords());
+    }
+}
@@ -0,0 +1,372 @@
+/*
+ * Name: Michael Tenkorang
+ * Class Purpose: Working with the HashMaps and Binary Search Trees
+ */
+
+import java.util.ArrayList;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+/**
+ * A hash map that uses open addressing with linear probing. Keys and values
+ * are stored in flat arrays instead of chains of nodes. Removed keys leave a
+ * tombstone behind so that lookups keep probing past them; tombstones are
+ * reused by later inserts and dropped whenever the table is rebuilt. Once
+ * enough of them pile up the table is rebuilt in place, shrinking it if most
+ * of its keys have been removed.
+ */
+@SuppressWarnings("unchecked")
+public class ProbingHashMap<K, V> implements MapSet<K, V> {
+
+    /*
+     * Marks a slot whose key was removed
+     */
+    private static final Object TOMBSTONE = new Object();
+
+    private Object[] keys;
+    private V[] values;
+    private int[] hashes;
+    private int size;
+    private int tombstones;
+    private double maxLoadFactor;
+
+    public ProbingHashMap(int initialCapacity, double maxLoadFactor) {
+        // the table must always keep an empty slot, or probing for a missing key never ends
+        if (!(maxLoadFactor > 0 && maxLoadFactor < 1)) {
+            throw new IllegalArgumentException("ProbingHashMap():: maxLoadFactor must be between 0 and 1");
+        }
+        int capacity = 16;
+        while (capacity < initialCapacity) {
+            capacity <<= 1;
+        }
+        keys = new Object[capacity];
+        values = (V[]) new Object[capacity];
+        hashes = new int[capacity];
+        size = 0;
+        tombstones = 0;
+        this.maxLoadFactor = maxLoadFactor;
+    }
+
+    public ProbingHashMap(int initialCapacity) {
+        this(initialCapacity, .5);
+    }
+
+    public ProbingHashMap() {
+        this(16);
+    }
+
+    /*
+     * Capacity of the table
+     */
+    int capacity() {
+        return keys.length;
+    }
+
+    /*
+     * Smallest capacity that holds a number of keys at half the max load factor
+     */
+    private int capacityFor(int keys) {
+        int capacity = 16;
+        while (keys > maxLoadFactor * capacity / 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /*
+     * Returns hash of each key, with the high bits mixed into the low bits
+     */
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /*
+     * Returns the slot holding a key, or -1 if the key is not in the map
+     */
+    private int find(K key, int hash) {
+        int mask = capacity() - 1;
+        int index = hash & mask;
+
+        while (keys[index] != null) {
+            if (keys[index] != TOMBSTONE && hashes[index] == hash && keys[index].equals(key)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    /*
+     * Returns the slot holding a key, or the slot a new key should go in: the
+     * first tombstone on its probe sequence, or else the empty slot that ended
+     * it. The result is encoded as -(slot + 1) when the key is not in the map.
+     */
+    private int findOrFree(K key, int hash) {
+        int mask = capacity() - 1;
+        int index = hash & mask;
+        int firstTombstone = -1;
+
+        while (keys[index] != null) {
+            if (keys[index] == TOMBSTONE) {
+                if (firstTombstone < 0) {
+                    firstTombstone = index;
+                }
+            } else if (hashes[index] == hash && keys[index].equals(key)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+
+        return -((firstTombstone >= 0 ? firstTombstone : index) + 1);
+    }
+
+    /*
+     * Put a new key in a free slot and grow the table if needed
+     */
+    private void insert(int index, K key, int hash, V value) {
+        if (keys[index] == TOMBSTONE) {
+            tombstones--;
+        }
+        keys[index] = key;
+        values[index] = value;
+        hashes[index] = hash;
+        size++;
+
+        if (size + tombstones > maxLoadFactor * capacity()) {
+            // only grow if live keys fill the table, otherwise just clear out tombstones
+            resize(size > maxLoadFactor * capacity() / 2 ? capacity() * 2 : capacity());
+        }
+    }
+
+    /*
+     * Replace a key with a tombstone, rebuilding the table once tombstones fill
+     * a quarter of what it may hold
+     */
+    private void removeSlot(int index) {
+        keys[index] = TOMBSTONE;
+        values[index] = null;
+        size--;
+        tombstones++;
+
+        if (tombstones > maxLoadFactor * capacity() / 4) {
+            resize(Math.min(capacity(), capacityFor(size)));
+        }
+    }
+
+    /*
+     * Rebuild the table with a new capacity, dropping tombstones
+     */
+    private void resize(int newCapacity) {
+        Object[] oldKeys = keys;
+        V[] oldValues = values;
+        int[] oldHashes = hashes;
+        keys = new Object[newCapacity];
+        values = (V[]) new Object[newCapacity];
+        hashes = new int[newCapacity];
+        tombstones = 0;
+        int mask = newCapacity - 1;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null && oldKeys[i] != TOMBSTONE) {
+                int index = oldHashes[i] & mask;
+                while (keys[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+                hashes[index] = oldHashes[i];
+            }
+        }
+    }
+
+    /*
+     * Adds pair to the map
+     */
+    @Override
+    public V put(K key, V value) {
+        if (value == null) {
+            return null;
+        }
+
+        int hash = hash(key);
+        int index = findOrFree(key, hash);
+
+        if (index >= 0) {
+            V oldVal = values[index];
+            values[index] = value;
+            return oldVal;
+        }
+
+        insert(-index - 1, key, hash, value);
+        return null;
+    }
+
+    /*
+     * Compute a new value for a key, probing for it only once
+     */
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        int hash = hash(key);
+        int index = findOrFree(key, hash);
+
+        if (index >= 0) {
+            V newVal = remappingFunction.apply(key, values[index]);
+            if (newVal == null) {
+                removeSlot(index);
+            } else {
+                values[index] = newVal;
+            }
+            return newVal;
+        }
+
+        V newVal = remappingFunction.apply(key, null);
+        if (newVal != null) {
+            insert(-index - 1, key, hash, newVal);
+        }
+        return newVal;
+    }
+
+    /*
+     * Check if the map contains a particular key
+     */
+    @Override
+    public boolean containsKey(K key) {
+        return find(key, hash(key)) >= 0;
+    }
+
+    /*
+     * Get the value of a particular key
+     */
+    @Override
+    public V get(K key) {
+        int index = find(key, hash(key));
+        return index < 0 ? null : values[index];
+    }
+
+    /*
+     * Remove a key from the map
+     */
+    @Override
+    public V remove(K key) {
+        int index = find(key, hash(key));
+
+        if (index < 0) {
+            return null;
+        }
+
+        V oldVal = values[index];
+        removeSlot(index);
+        return oldVal;
+    }
+
+    /*
+     * Return a list of the keys in the map
+     */
+    @Override
+    public ArrayList<K> keySet() {
+        ArrayList<K> output = new ArrayList<>();
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null && keys[i] != TOMBSTONE) {
+                output.add((K) keys[i]);
+            }
+        }
+        return output;
+    }
+
+    /*
+     * Returns a list of the values in the map
+     */
+    @Override
+    public ArrayList<V> values() {
+        ArrayList<V> output = new ArrayList<>();
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null && keys[i] != TOMBSTONE) {
+                output.add(values[i]);
+            }
+        }
+        return output;
+    }
+
+    /*
+     * Returns the list of all the pairs in the map
+     */
+    @Override
+    public ArrayList<KeyValuePair<K, V>> entrySet() {
+        ArrayList<KeyValuePair<K, V>> output = new ArrayList<>();
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null && keys[i] != TOMBSTONE) {
+                output.add(new KeyValuePair<K, V>((K) keys[i], values[i]));
+            }
+        }
+        return output;
+    }
+
+    /*
+     * Run an action on every pair in the map
+     */
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null && keys[i] != TOMBSTONE) {
+                action.accept((K) keys[i], values[i]);
+            }
+        }
+    }
+
+    /*
+     * Returns the number of items in the map
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /*
+     * Reset the map
+     */
+    @Override
+    public void clear() {
+        keys = new Object[16];
+        values = (V[]) new Object[16];
+        hashes = new int[16];
+        size = 0;
+        tombstones = 0;
+    }
+
+    /*
+     * Get the longest probe sequence needed to find a key
+     */
+    @Override
+    public int maxDepth() {
+        int mask = capacity() - 1;
+        int maxDepth = 0;
+
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null && keys[i] != TOMBSTONE) {
+                int depth = ((i - (hashes[i] & mask)) & mask) + 1;
+                if (depth > maxDepth) {
+                    maxDepth = depth;
+                }
+            }
+        }
+
+        return maxDepth;
+    }
+
+    /*
+     * String representation of the map
+     */
+    public String toString() {
+        String output = "\n";
+
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null && keys[i] != TOMBSTONE) {
+                output += "<" + keys[i] + " -> " + values[i] + ">\n";
+            }
+        }
+
+        return output;
+    }
+}
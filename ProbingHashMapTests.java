@@ -0,0 +1,135 @@
+/*
+ * Name: Michael Tenkorang
+ * Class Purpose: Working with the HashMaps and Binary Search Trees
+ */
+
+public class ProbingHashMapTests {
+
+    public static void probingHashMapTests() {
+        {
+            /*
+             * Test constructor and size() method
+             */
+            // Setup
+            ProbingHashMap<String, Integer> map = new ProbingHashMap<>();
+
+            // Verify
+            System.out.println(map + " == ");
+            System.out.println(map.size() + " == 0");
+
+            // Test
+            assert map.size() == 0;
+        }
+
+        {
+            /*
+             * Test put() and get() method
+             */
+            // Setup
+            ProbingHashMap<String, Integer> map = new ProbingHashMap<>();
+            map.put("Michael", 10);
+            map.put("Professor", 5);
+            Integer oldVal = map.put("Michael", 20);
+
+            // Verify
+            System.out.println(map.get("Michael") + " == 20");
+            System.out.println(oldVal + " == 10");
+            System.out.println(map.get("Tenkorang") + " == null");
+
+            // Test
+            assert map.get("Michael") == 20 : "put() does not replace values";
+            assert oldVal == 10 : "Put return not working";
+            assert map.get("Tenkorang") == null : "get() faulty";
+        }
+
+        {
+            /*
+             * Test remove() leaves the keys after a tombstone reachable
+             */
+            // Setup
+            ProbingHashMap<String, Integer> map = new ProbingHashMap<>();
+            for (int i = 0; i < 1000; i++) {
+                map.put("word" + i, i);
+            }
+            for (int i = 0; i < 1000; i += 2) {
+                map.remove("word" + i);
+            }
+            map.put("word0", 0);
+
+            // Verify
+            System.out.println(map.size() + " == 501");
+            System.out.println(map.get("word999") + " == 999");
+            System.out.println(map.containsKey("word998") + " == false");
+
+            // Test
+            assert map.size() == 501 : "remove() faulty";
+            assert map.get("word999") == 999 : "remove() loses other keys";
+            assert !map.containsKey("word998") : "remove() does not remove item from map";
+        }
+
+        {
+            /*
+             * Test the load factor is checked, and a long run of put() and
+             * remove() clears out tombstones and shrinks the table
+             */
+            // Setup
+            boolean rejected = false;
+            try {
+                new ProbingHashMap<String, Integer>(16, 1);
+            } catch (IllegalArgumentException e) {
+                rejected = true;
+            }
+            ProbingHashMap<String, Integer> map = new ProbingHashMap<>();
+            for (int i = 0; i < 10000; i++) {
+                map.put("word" + i, i);
+            }
+            int grownCapacity = map.capacity();
+            for (int i = 10; i < 10000; i++) {
+                map.remove("word" + i);
+            }
+            for (int i = 0; i < 100000; i++) {
+                map.put("other" + i, i);
+                map.remove("other" + i);
+            }
+
+            // Verify
+            System.out.println(rejected + " == true");
+            System.out.println(map.size() + " == 10");
+            System.out.println(map.get("word9") + " == 9");
+            System.out.println((map.capacity() < grownCapacity) + " == true");
+            System.out.println((map.maxDepth() < 16) + " == true");
+
+            // Test
+            assert rejected : "invalid load factor accepted";
+            assert map.size() == 10 : "remove() faulty";
+            assert map.get("word9") == 9 : "remove() loses other keys";
+            assert map.capacity() < grownCapacity : "table does not shrink";
+            assert map.maxDepth() < 16 : "tombstones not cleared out";
+        }
+
+        {
+            /*
+             * Test clear() and maxDepth() methods
+             */
+            // Setup
+            ProbingHashMap<String, Integer> map = new ProbingHashMap<>();
+            map.put("Dog", 21);
+            map.put("Bat", 12);
+            int depth = map.maxDepth();
+            map.clear();
+
+            // Verify
+            System.out.println((depth >= 1) + " == true");
+            System.out.println(map.size() + " == 0");
+            System.out.println(map.maxDepth() + " == 0");
+
+            // Test
+            assert depth >= 1 : "maxDepth() faulty";
+            assert map.values().size() == 0 : "clear() faulty";
+        }
+    }
+
+    public static void main(String[] args) {
+        probingHashMapTests();
+    }
+}
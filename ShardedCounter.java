@@ -0,0 +1,96 @@
+/*
+ * Name: Michael Tenkorang
+ * Class Purpose: Working with the HashMaps and Binary Search Trees
+ */
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A count that many threads can add to at once without fighting over one
+ * cache line, in the style of java.util.concurrent.atomic.LongAdder. The
+ * count is split over several cells, each on its own 128-byte line, and every
+ * thread adds to the cell picked by its thread id. Reading the count sums the
+ * cells, so adding is cheap and reading is not.
+ *
+ * Unlike LongAdder, a counter can be sealed: seal() takes every cell's value
+ * in one atomic step per cell, and any add() that lands after that is turned
+ * away, so its caller can count it somewhere else and nothing is lost.
+ */
+public class ShardedCounter {
+
+    /*
+     * Longs per cell, so no two cells share a cache line
+     */
+    private static final int PADDING = 16;
+
+    private final AtomicLongArray cells;
+    private final int mask;
+
+    public ShardedCounter(int shards, long initialCount) {
+        int cellCount = 1;
+        while (cellCount < shards) {
+            cellCount <<= 1;
+        }
+        cells = new AtomicLongArray(cellCount * PADDING);
+        mask = cellCount - 1;
+        cells.set(0, initialCount);
+    }
+
+    /*
+     * Returns the number of cells
+     */
+    public int shards() {
+        return mask + 1;
+    }
+
+    /*
+     * Add to the count. Returns false, without counting, if the counter has
+     * been sealed. A sealed cell is told apart by its sign, so the count can
+     * only grow.
+     */
+    public boolean add(long delta) {
+        if (delta < 0) {
+            throw new IllegalArgumentException("ShardedCounter.add():: delta must not be negative");
+        }
+        return cells.getAndAdd(cell() * PADDING, delta) >= 0;
+    }
+
+    /*
+     * Returns the count, or -1 if the counter has been sealed
+     */
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i <= mask; i++) {
+            long value = cells.get(i * PADDING);
+            if (value < 0) {
+                return -1;
+            }
+            sum += value;
+        }
+        return sum;
+    }
+
+    /*
+     * Stop the counter and return its final count. Every add() that did not
+     * make it into the count returns false.
+     */
+    public long seal() {
+        long sum = 0;
+        for (int i = 0; i <= mask; i++) {
+            long value = cells.getAndSet(i * PADDING, Long.MIN_VALUE);
+            if (value > 0) {
+                sum += value;
+            }
+        }
+        return sum;
+    }
+
+    /*
+     * Cell of the current thread
+     */
+    @SuppressWarnings("deprecation")
+    private int cell() {
+        long id = Thread.currentThread().getId();
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * Name: Michael Tenkorang
+ * Class Purpose: Working with the HashMaps and Binary Search Trees
+ */
+
+import java.util.ArrayList;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Approximate word counts in a fixed amount of memory. Every word is counted
+ * in a CountMinSketch, and the words with the highest counts are also kept by
+ * name, with their counts, in a LiveTopK of heavy hitters.
+ *
+ * A heavy hitter enters with the sketch's estimate at that moment and is then
+ * counted exactly, so the heavy hitter counts are at least as tight as the
+ * sketch's. getCount() answers for any word: the heavy hitter count if the
+ * word is one, the sketch estimate otherwise. The MapSet views (keySet(),
+ * entrySet(), forEach(), size(), ...) only cover the heavy hitters, because
+ * the other words are never stored.
+ */
+public class SketchMap implements CountingMapSet<String> {
+
+    private CountMinSketch sketch;
+    private LiveTopK heavyHitters;
+
+    public SketchMap(double epsilon, double delta, boolean conservative, int heavyHitters) {
+        this.sketch = new CountMinSketch(epsilon, delta, conservative);
+        this.heavyHitters = new LiveTopK(heavyHitters);
+    }
+
+    public SketchMap(double epsilon, double delta, int heavyHitters) {
+        this(epsilon, delta, true, heavyHitters);
+    }
+
+    /*
+     * Get the estimated count of a word
+     */
+    @Override
+    public int getCount(String key) {
+        int count = heavyHitters.count(key);
+        return count > 0 ? count : sketch.estimate(key);
+    }
+
+    /*
+     * Add to the count of a word and return its new estimated count
+     */
+    @Override
+    public int add(String key, int delta) {
+        int kept = heavyHitters.count(key);
+        int estimate = sketch.add(key, delta);
+
+        int count = kept > 0 ? kept + delta : estimate;
+        heavyHitters.update(key, count);
+        return count;
+    }
+
+    /*
+     * Add to the count of a word the sketch has seen before
+     */
+    @Override
+    public int addIfPresent(String key, int delta) {
+        return getCount(key) > 0 ? add(key, delta) : 0;
+    }
+
+    /*
+     * Add all the counts of another SketchMap with the same dimensions
+     */
+    public void merge(SketchMap other) {
+        ArrayList<MapSet.KeyValuePair<String, Integer>> candidates = heavyHitters.sortedEntries();
+        candidates.addAll(other.heavyHitters.sortedEntries());
+
+        // a word's merged count is the sum of its counts in the two maps, which
+        // is never above the merged sketch's estimate
+        LiveTopK merged = new LiveTopK(heavyHitters.capacity());
+        for (MapSet.KeyValuePair<String, Integer> candidate : candidates) {
+            String word = candidate.getKey();
+            if (merged.count(word) == 0) {
+                merged.update(word, getCount(word) + other.getCount(word));
+            }
+        }
+
+        sketch.merge(other.sketch);
+        heavyHitters = merged;
+    }
+
+    /*
+     * Returns the sum of all the counts added
+     */
+    public long totalCount() {
+        return sketch.totalCount();
+    }
+
+    /*
+     * Returns the sketch behind this map
+     */
+    public CountMinSketch sketch() {
+        return sketch;
+    }
+
+    /*
+     * Sets the count of a word to at least `value`
+     */
+    @Override
+    public Integer put(String key, Integer value) {
+        if (value == null) {
+            return null;
+        }
+
+        int oldVal = getCount(key);
+        if (value > oldVal) {
+            add(key, value - oldVal);
+        }
+        return oldVal == 0 ? null : oldVal;
+    }
+
+    /*
+     * Compute a new count for a word from its estimated count. A lower count
+     * or null takes the difference back out of the sketch, as in subtract().
+     */
+    @Override
+    public Integer compute(String key, BiFunction<? super String, ? super Integer, ? extends Integer> remappingFunction) {
+        int oldVal = getCount(key);
+        Integer newVal = remappingFunction.apply(key, oldVal == 0 ? null : oldVal);
+
+        if (newVal == null) {
+            if (oldVal != 0) {
+                subtract(key, oldVal);
+            }
+            return null;
+        }
+
+        if (newVal > oldVal) {
+            return add(key, newVal - oldVal);
+        }
+        if (newVal < oldVal) {
+            return subtract(key, oldVal - newVal);
+        }
+        return oldVal;
+    }
+
+    /*
+     * Take part of the count of a word back out and return its new estimated
+     * count. This is best effort: a sketch does not know how much of each
+     * counter belongs to the word, so other words sharing its counters can be
+     * lowered too, and a word taken all the way to 0 may still be estimated
+     * above 0. A heavy hitter that drops to 0 stops being one.
+     */
+    public int subtract(String key, int delta) {
+        int kept = heavyHitters.count(key);
+        int estimate = sketch.subtract(key, delta);
+
+        if (kept == 0) {
+            return estimate;
+        }
+        if (kept <= delta) {
+            heavyHitters.remove(key);
+            return 0;
+        }
+        heavyHitters.update(key, kept - delta);
+        return kept - delta;
+    }
+
+    /*
+     * Check if the sketch has seen a word. May be true for a word that was
+     * never added if all its counters were raised by other words.
+     */
+    @Override
+    public boolean containsKey(String key) {
+        return getCount(key) > 0;
+    }
+
+    /*
+     * Get the estimated count of a word, or null if it was never seen
+     */
+    @Override
+    public Integer get(String key) {
+        int count = getCount(key);
+        return count == 0 ? null : count;
+    }
+
+    /*
+     * Take the whole count of a word back out, as in subtract(), and return
+     * the count it had, or null if it was never seen
+     */
+    @Override
+    public Integer remove(String key) {
+        int oldVal = getCount(key);
+        if (oldVal == 0) {
+            return null;
+        }
+        subtract(key, oldVal);
+        return oldVal;
+    }
+
+    /*
+     * Returns the heavy hitters, highest count first
+     */
+    @Override
+    public ArrayList<String> keySet() {
+        ArrayList<String> output = new ArrayList<>();
+        for (MapSet.KeyValuePair<String, Integer> entry : heavyHitters.sortedEntries()) {
+            output.add(entry.getKey());
+        }
+        return output;
+    }
+
+    /*
+     * Returns the counts of the heavy hitters, highest first
+     */
+    @Override
+    public ArrayList<Integer> values() {
+        ArrayList<Integer> output = new ArrayList<>();
+        for (MapSet.KeyValuePair<String, Integer> entry : heavyHitters.sortedEntries()) {
+            output.add(entry.getValue());
+        }
+        return output;
+    }
+
+    /*
+     * Returns the heavy hitters with their counts, highest count first
+     */
+    @Override
+    public ArrayList<KeyValuePair<String, Integer>> entrySet() {
+        return heavyHitters.sortedEntries();
+    }
+
+    /*
+     * Run an action on every heavy hitter
+     */
+    @Override
+    public void forEach(BiConsumer<? super String, ? super Integer> action) {
+        for (MapSet.KeyValuePair<String, Integer> entry : heavyHitters.sortedEntries()) {
+            action.accept(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /*
+     * Run an action on every heavy hitter with its count
+     */
+    @Override
+    public void forEachCount(ObjIntConsumer<? super String> action) {
+        for (MapSet.KeyValuePair<String, Integer> entry : heavyHitters.sortedEntries()) {
+            action.accept(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /*
+     * Returns the number of heavy hitters
+     */
+    @Override
+    public int size() {
+        return heavyHitters.size();
+    }
+
+    /*
+     * Reset the sketch and the heavy hitters
+     */
+    @Override
+    public void clear() {
+        sketch.clear();
+        heavyHitters.clear();
+    }
+
+    /*
+     * Returns the number of rows of the sketch, which is how many counters are
+     * read to estimate any word
+     */
+    @Override
+    public int maxDepth() {
+        return sketch.depth();
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Name: Michael Tenkorang
+ * Class Purpose: Working with the HashMaps and Binary Search Trees
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+/**
+ * Keeps the K words with the highest counts out of all the words offered to
+ * it. The words are held in a min-heap of size K, so the smallest of the kept
+ * counts is always at the top and each offer costs O(log K). Words with equal
+ * counts are ordered alphabetically so the result does not depend on the order
+ * the words were offered in.
+ */
+public class TopKHeap {
+
+    private String[] words;
+    private int[] counts;
+    private int size;
+
+    public TopKHeap(int k) {
+        words = new String[Math.max(k, 0)];
+        counts = new int[Math.max(k, 0)];
+        size = 0;
+    }
+
+    /*
+     * Offer a word with its count, keeping it only if it is among the top K
+     */
+    public void offer(String word, int count) {
+        if (size < words.length) {
+            words[size] = word;
+            counts[size] = count;
+            siftUp(size);
+            size++;
+        } else if (size > 0 && ranksAbove(word, count, 0)) {
+            words[0] = word;
+            counts[0] = count;
+            siftDown(0);
+        }
+    }
+
+    /*
+     * Check if a word with this count could be kept, without knowing the word.
+     * Lets callers skip creating words that would be turned away.
+     */
+    public boolean accepts(int count) {
+        return size < words.length || (size > 0 && count >= counts[0]);
+    }
+
+    /*
+     * Returns the number of words kept
+     */
+    public int size() {
+        return size;
+    }
+
+    /*
+     * Returns the kept words with their counts, highest count first
+     */
+    public ArrayList<MapSet.KeyValuePair<String, Integer>> sortedEntries() {
+        TopKHeap copy = new TopKHeap(0);
+        copy.words = words.clone();
+        copy.counts = counts.clone();
+        copy.size = size;
+
+        // take the lowest entry off a copy of the heap until it is empty
+        ArrayList<MapSet.KeyValuePair<String, Integer>> output = new ArrayList<>();
+        while (copy.size > 0) {
+            output.add(new MapSet.KeyValuePair<String, Integer>(copy.words[0], copy.counts[0]));
+            copy.size--;
+            copy.swap(0, copy.size);
+            copy.siftDown(0);
+        }
+
+        Collections.reverse(output);
+        return output;
+    }
+
+    /*
+     * Check if a word and count rank above the entry at index i, meaning a
+     * higher count, or the same count and an earlier word
+     */
+    private boolean ranksAbove(String word, int count, int i) {
+        if (count != counts[i]) {
+            return count > counts[i];
+        }
+        return word.compareTo(words[i]) < 0;
+    }
+
+    /*
+     * Move the entry at index i up until its parent ranks below it
+     */
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (!ranksAbove(words[parent], counts[parent], i)) {
+                break;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    /*
+     * Move the entry at index i down until both children rank above it
+     */
+    private void siftDown(int i) {
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && ranksAbove(words[smallest], counts[smallest], left)) {
+                smallest = left;
+            }
+            if (right < size && ranksAbove(words[smallest], counts[smallest], right)) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    /*
+     * Swap two entries of the heap
+     */
+    private void swap(int i, int j) {
+        String word = words[i];
+        words[i] = words[j];
+        words[j] = word;
+        int count = counts[i];
+        counts[i] = counts[j];
+        counts[j] = count;
+    }
+}
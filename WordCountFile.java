@@ -0,0 +1,501 @@
+/*
+ * Name: Michael Tenkorang
+ * Class Purpose: Working with the HashMaps and Binary Search Trees
+ */
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.zip.CRC32;
+
+/**
+ * Binary file of word counts, sorted by word. The layout is
+ *
+ *   header:  magic "RWFC" (4 bytes), version (4 bytes),
+ *            total word count (8 bytes)
+ *   entries: for every word in sorted order, its length in bytes as a varint,
+ *            its UTF-8 bytes, and its count as a varint
+ *   trailer: number of entries (4 bytes), CRC32 of everything before it
+ *            (4 bytes)
+ *
+ * Counts are small for most words, so the varints usually take one or two
+ * bytes. The number of entries comes last so a file can be written in one
+ * pass without knowing it up front. Files are written through a buffered
+ * FileChannel into a temporary file that only replaces the real one once the
+ * trailer is written, so a write that fails part way never leaves a file that
+ * looks complete. They are read back either with one bulk read, which checks
+ * the checksum before anything is decoded, or one entry at a time with a
+ * Reader.
+ */
+public class WordCountFile {
+
+    static final int MAGIC = 0x52574643;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int TRAILER_SIZE = 8;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private long totalWordCount;
+    private String[] words;
+    private int[] counts;
+
+    private WordCountFile(long totalWordCount, String[] words, int[] counts) {
+        this.totalWordCount = totalWordCount;
+        this.words = words;
+        this.counts = counts;
+    }
+
+    /*
+     * Returns the total word count stored in the header
+     */
+    public long totalWordCount() {
+        return totalWordCount;
+    }
+
+    /*
+     * Returns the number of words in the file
+     */
+    public int size() {
+        return words.length;
+    }
+
+    /*
+     * Returns the i-th word in sorted order
+     */
+    public String word(int i) {
+        return words[i];
+    }
+
+    /*
+     * Returns the count of the i-th word in sorted order
+     */
+    public int count(int i) {
+        return counts[i];
+    }
+
+    /*
+     * Write the counts of a map, sorted by word
+     */
+    public static void write(String filename, long totalWordCount, MapSet<String, Integer> counts) throws IOException {
+        ArrayList<MapSet.KeyValuePair<String, Integer>> entries = new ArrayList<>(counts.size());
+        counts.forEach((word, count) -> entries.add(new MapSet.KeyValuePair<>(word, count)));
+        entries.sort((a, b) -> a.getKey().compareTo(b.getKey()));
+
+        try (Writer writer = new Writer(filename, totalWordCount)) {
+            for (MapSet.KeyValuePair<String, Integer> entry : entries) {
+                writer.write(entry.getKey(), entry.getValue());
+            }
+            writer.finish();
+        }
+    }
+
+    /*
+     * Read a whole file, checking its header and checksum
+     */
+    public static WordCountFile read(String filename) throws IOException {
+        ByteBuffer buffer = readFully(filename);
+        checkFile(buffer, filename);
+
+        long totalWordCount = buffer.getLong(8);
+        int size = buffer.getInt(buffer.limit() - TRAILER_SIZE);
+        String[] words = new String[size];
+        int[] counts = new int[size];
+        byte[] bytes = buffer.array();
+
+        buffer.position(HEADER_SIZE);
+        for (int i = 0; i < size; i++) {
+            int length = getVarint(buffer);
+            words[i] = new String(bytes, buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            counts[i] = getVarint(buffer);
+        }
+
+        if (buffer.position() != buffer.limit() - TRAILER_SIZE) {
+            throw new IOException(filename + ": entries do not match the trailer");
+        }
+
+        return new WordCountFile(totalWordCount, words, counts);
+    }
+
+    /*
+     * Read the bytes of a file into a heap buffer with one bulk read
+     */
+    private static ByteBuffer readFully(String filename) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(filename + ": too large to load");
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException(filename + ": unexpected end of file");
+                }
+            }
+            buffer.flip();
+            return buffer;
+        }
+    }
+
+    /*
+     * Check the magic number, version and checksum of a whole file
+     */
+    static void checkFile(ByteBuffer buffer, String filename) throws IOException {
+        if (buffer.limit() < HEADER_SIZE + TRAILER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException(filename + ": not a word count file");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException(filename + ": unsupported version " + buffer.getInt(4));
+        }
+
+        CRC32 crc = new CRC32();
+        ByteBuffer body = buffer.duplicate();
+        body.position(0).limit(buffer.limit() - 4);
+        crc.update(body);
+        if ((int) crc.getValue() != buffer.getInt(buffer.limit() - 4)) {
+            throw new IOException(filename + ": checksum mismatch");
+        }
+    }
+
+    /*
+     * Read an unsigned LEB128 varint
+     */
+    static int getVarint(ByteBuffer buffer) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (b & 0x7f) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    /*
+     * Create an empty temporary file next to a file that is about to be written
+     */
+    static Path temporaryFileFor(String filename) throws IOException {
+        Path target = Paths.get(filename).toAbsolutePath();
+        return Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+    }
+
+    /*
+     * Move a finished temporary file over the file it was written for
+     */
+    static void replace(Path temporary, String filename) throws IOException {
+        Files.move(temporary, Paths.get(filename), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /*
+     * Writes a file one entry at a time. Words must be given in sorted order.
+     * The file only appears once finish() has written the trailer; closing a
+     * Writer without calling finish() throws away what was written.
+     */
+    public static class Writer implements AutoCloseable {
+        private Output out;
+        private int size;
+        private String lastWord;
+
+        public Writer(String filename, long totalWordCount) throws IOException {
+            out = new Output(filename);
+            out.putInt(MAGIC);
+            out.putInt(VERSION);
+            out.putLong(totalWordCount);
+            size = 0;
+        }
+
+        /*
+         * Write the next word and its count
+         */
+        public void write(String word, int count) throws IOException {
+            if (lastWord != null && lastWord.compareTo(word) >= 0) {
+                throw new IllegalArgumentException("WordCountFile.Writer.write():: " + word + " is out of order");
+            }
+            byte[] key = word.getBytes(StandardCharsets.UTF_8);
+            out.putVarint(key.length);
+            out.putBytes(key);
+            out.putVarint(count);
+            lastWord = word;
+            size++;
+        }
+
+        /*
+         * Write the trailer and put the finished file in place
+         */
+        public void finish() throws IOException {
+            out.putInt(size);
+            out.finish();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    /*
+     * Reads a file one entry at a time through a fixed size buffer. The
+     * checksum and number of entries are checked once the last entry is read.
+     */
+    public static class Reader implements WordCountMerger.CountSource {
+        private String filename;
+        private FileChannel channel;
+        private ByteBuffer buffer;
+        private CRC32 crc;
+        private long fileSize;
+        private long consumed;
+        private boolean finished;
+        private long totalWordCount;
+        private int size;
+        private String word;
+        private int count;
+
+        public Reader(String filename) throws IOException {
+            this.filename = filename;
+            channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ);
+            buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            buffer.flip();
+            crc = new CRC32();
+
+            try {
+                fileSize = channel.size();
+                if (fileSize < HEADER_SIZE + TRAILER_SIZE) {
+                    throw new IOException(filename + ": not a word count file");
+                }
+
+                ensure(HEADER_SIZE);
+                if (buffer.getInt() != MAGIC) {
+                    throw new IOException(filename + ": not a word count file");
+                }
+                int version = buffer.getInt();
+                if (version != VERSION) {
+                    throw new IOException(filename + ": unsupported version " + version);
+                }
+                totalWordCount = buffer.getLong();
+                consumed = HEADER_SIZE;
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        /*
+         * Returns the total word count stored in the header
+         */
+        @Override
+        public long totalWordCount() {
+            return totalWordCount;
+        }
+
+        /*
+         * Move to the next entry. Returns false once there are none left.
+         */
+        @Override
+        public boolean next() throws IOException {
+            if (consumed >= fileSize - TRAILER_SIZE) {
+                if (!finished) {
+                    finish();
+                }
+                word = null;
+                return false;
+            }
+
+            ensure(5);
+            int start = buffer.position();
+            int length = getVarint(buffer);
+            consumed += buffer.position() - start;
+
+            // reading more of the file moves the bytes within the buffer
+            ensure(length + 5);
+            start = buffer.position();
+            word = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            count = getVarint(buffer);
+            consumed += buffer.position() - start;
+            if (consumed > fileSize - TRAILER_SIZE) {
+                throw new IOException(filename + ": entries run into the trailer");
+            }
+            size++;
+            return true;
+        }
+
+        /*
+         * Returns the word of the current entry
+         */
+        @Override
+        public String word() {
+            return word;
+        }
+
+        /*
+         * Returns the count of the current entry
+         */
+        @Override
+        public int count() {
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        /*
+         * Check the trailer once every entry is read
+         */
+        private void finish() throws IOException {
+            ensure(TRAILER_SIZE);
+            int expectedSize = buffer.getInt();
+            int expectedCrc = buffer.getInt();
+            if (expectedSize != size) {
+                throw new IOException(filename + ": entries do not match the trailer");
+            }
+            if ((int) crc.getValue() != expectedCrc) {
+                throw new IOException(filename + ": checksum mismatch");
+            }
+            finished = true;
+        }
+
+        /*
+         * Make sure at least n bytes are in the buffer, reading more of the
+         * file if needed. Bytes are added to the checksum as they are read,
+         * except for the checksum itself.
+         */
+        private void ensure(int n) throws IOException {
+            if (buffer.remaining() >= n) {
+                return;
+            }
+            if (n > buffer.capacity()) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(n, 2 * buffer.capacity()));
+                larger.put(buffer);
+                buffer = larger;
+            } else {
+                buffer.compact();
+            }
+
+            long fileOffset = channel.position();
+            int readFrom = buffer.position();
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                continue;
+            }
+
+            long checked = Math.max(0, fileSize - 4 - fileOffset);
+            crc.update(buffer.array(), readFrom, (int) Math.min(buffer.position() - readFrom, checked));
+            buffer.flip();
+
+            if (buffer.remaining() < n) {
+                throw new IOException(filename + ": unexpected end of file");
+            }
+        }
+    }
+
+    /*
+     * Buffered writer over a FileChannel that keeps a running CRC32. The bytes
+     * go to a temporary file; finish() writes the CRC32 as the trailer and
+     * moves the file into place, and close() without finish() deletes it.
+     */
+    static class Output implements AutoCloseable {
+        private String filename;
+        private Path temporary;
+        private FileChannel channel;
+        private ByteBuffer buffer;
+        private CRC32 crc;
+        private boolean finished;
+
+        Output(String filename) throws IOException {
+            this.filename = filename;
+            temporary = temporaryFileFor(filename);
+            try {
+                channel = FileChannel.open(temporary, StandardOpenOption.WRITE);
+            } catch (IOException e) {
+                Files.deleteIfExists(temporary);
+                throw e;
+            }
+            buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            crc = new CRC32();
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(4);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(8);
+            buffer.putLong(value);
+        }
+
+        void putVarint(int value) throws IOException {
+            ensure(5);
+            while ((value & ~0x7f) != 0) {
+                buffer.put((byte) ((value & 0x7f) | 0x80));
+                value >>>= 7;
+            }
+            buffer.put((byte) value);
+        }
+
+        void putBytes(byte[] bytes) throws IOException {
+            int offset = 0;
+            while (offset < bytes.length) {
+                ensure(1);
+                int length = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, length);
+                offset += length;
+            }
+        }
+
+        /*
+         * Flush the buffer if it has less than n bytes of room
+         */
+        private void ensure(int n) throws IOException {
+            if (buffer.remaining() < n) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            crc.update(buffer.array(), 0, buffer.limit());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        /*
+         * Write the CRC32 trailer and move the file into place
+         */
+        void finish() throws IOException {
+            flush();
+            buffer.putInt((int) crc.getValue());
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.close();
+            replace(temporary, filename);
+            finished = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!finished) {
+                try {
+                    channel.close();
+                } finally {
+                    Files.deleteIfExists(temporary);
+                }
+            }
+        }
+    }
+}
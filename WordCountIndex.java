@@ -0,0 +1,226 @@
+/*
+ * Name: Michael Tenkorang
+ * Class Purpose: Working with the HashMaps and Binary Search Trees
+ */
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Read-only lookup file of word counts that is memory-mapped instead of
+ * loaded. The layout is
+ *
+ *   header:  magic "RWFI" (4 bytes), version (4 bytes),
+ *            total word count (8 bytes), number of entries (4 bytes)
+ *   offsets: for every entry, where it starts in the key block (4 bytes each)
+ *   keys:    for every word in sorted UTF-8 byte order, its length as a
+ *            varint, its UTF-8 bytes, and its count as a varint
+ *   trailer: CRC32 of everything before it (4 bytes)
+ *
+ * Opening an index only maps the file and reads the header, so it takes about
+ * the same time for any number of words and uses almost no heap. getCount()
+ * binary searches the offset table, comparing the bytes of the word directly
+ * against the mapping. The checksum is only checked by verify(), since it
+ * means reading the whole file.
+ */
+public class WordCountIndex implements AutoCloseable {
+
+    static final int MAGIC = 0x52574649;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 20;
+
+    private FileChannel channel;
+    private MappedByteBuffer mapping;
+    private String filename;
+    private long totalWordCount;
+    private int size;
+    private int keysStart;
+
+    private WordCountIndex(String filename) throws IOException {
+        this.filename = filename;
+        channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ);
+
+        try {
+            long fileSize = channel.size();
+            if (fileSize > Integer.MAX_VALUE) {
+                throw new IOException(filename + ": too large to map");
+            }
+            mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+
+            if (fileSize < HEADER_SIZE + 4 || mapping.getInt(0) != MAGIC) {
+                throw new IOException(filename + ": not a word count index");
+            }
+            if (mapping.getInt(4) != VERSION) {
+                throw new IOException(filename + ": unsupported version " + mapping.getInt(4));
+            }
+
+            totalWordCount = mapping.getLong(8);
+            size = mapping.getInt(16);
+            keysStart = HEADER_SIZE + 4 * size;
+            if (size < 0 || keysStart > fileSize - 4) {
+                throw new IOException(filename + ": entries do not match the header");
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /*
+     * Map an index file written by write()
+     */
+    public static WordCountIndex open(String filename) throws IOException {
+        return new WordCountIndex(filename);
+    }
+
+    /*
+     * Write the counts of a map as an index file
+     */
+    public static void write(String filename, long totalWordCount, MapSet<String, Integer> counts) throws IOException {
+        ArrayList<byte[]> keys = new ArrayList<>(counts.size());
+        ArrayList<Integer> values = new ArrayList<>(counts.size());
+        Integer[] order = new Integer[counts.size()];
+        counts.forEach((word, count) -> {
+            order[keys.size()] = keys.size();
+            keys.add(word.getBytes(StandardCharsets.UTF_8));
+            values.add(count);
+        });
+        Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(keys.get(a), keys.get(b)));
+
+        try (WordCountFile.Output out = new WordCountFile.Output(filename)) {
+            out.putInt(MAGIC);
+            out.putInt(VERSION);
+            out.putLong(totalWordCount);
+            out.putInt(order.length);
+
+            int offset = 0;
+            for (int i : order) {
+                out.putInt(offset);
+                offset += varintSize(keys.get(i).length) + keys.get(i).length + varintSize(values.get(i));
+            }
+
+            for (int i : order) {
+                out.putVarint(keys.get(i).length);
+                out.putBytes(keys.get(i));
+                out.putVarint(values.get(i));
+            }
+            out.finish();
+        }
+    }
+
+    /*
+     * Get the count of a word, or 0 if it is not in the index
+     */
+    public int getCount(String word) {
+        byte[] key = word.getBytes(StandardCharsets.UTF_8);
+        int lo = 0;
+        int hi = size - 1;
+
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int entry = keysStart + mapping.getInt(HEADER_SIZE + 4 * mid);
+            int cmp = compare(entry, key);
+
+            if (cmp < 0) {
+                lo = mid + 1;
+            } else if (cmp > 0) {
+                hi = mid - 1;
+            } else {
+                ByteBuffer view = mapping.duplicate();
+                view.position(entry);
+                int length = WordCountFile.getVarint(view);
+                view.position(view.position() + length);
+                return WordCountFile.getVarint(view);
+            }
+        }
+
+        return 0;
+    }
+
+    /*
+     * Get the frequency of a word
+     */
+    public double getFrequency(String word) {
+        return (double) getCount(word) / (double) totalWordCount;
+    }
+
+    /*
+     * Returns the total word count stored in the header
+     */
+    public long totalWordCount() {
+        return totalWordCount;
+    }
+
+    /*
+     * Returns the number of words in the index
+     */
+    public int size() {
+        return size;
+    }
+
+    /*
+     * Check the checksum of the whole file
+     */
+    public void verify() throws IOException {
+        CRC32 crc = new CRC32();
+        ByteBuffer body = mapping.duplicate();
+        body.position(0).limit(mapping.limit() - 4);
+        crc.update(body);
+        if ((int) crc.getValue() != mapping.getInt(mapping.limit() - 4)) {
+            throw new IOException(filename + ": checksum mismatch");
+        }
+    }
+
+    /*
+     * Close the file. The mapping itself is released once it is garbage
+     * collected.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /*
+     * Compare the key of the entry starting at `entry` with the bytes of a word,
+     * as unsigned bytes
+     */
+    private int compare(int entry, byte[] key) {
+        int length = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = mapping.get(entry++);
+            length |= (b & 0x7f) << shift;
+            shift += 7;
+        } while (b < 0);
+
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int cmp = (mapping.get(entry + i) & 0xff) - (key[i] & 0xff);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return length - key.length;
+    }
+
+    /*
+     * Number of bytes of a varint
+     */
+    private static int varintSize(int value) {
+        int bytes = 1;
+        while ((value & ~0x7f) != 0) {
+            value >>>= 7;
+            bytes++;
+        }
+        return bytes;
+    }
+}
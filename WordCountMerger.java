@@ -0,0 +1,254 @@
+/*
+ * Name: Michael Tenkorang
+ * Class Purpose: Working with the HashMaps and Binary Search Trees
+ */
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Combines saved count files that are sorted by word into one file, without
+ * loading any of them into a map. Every input is read one entry at a time and
+ * the inputs sit in a priority queue ordered by their current word, so each
+ * step takes the smallest word, adds up its count from every input that has
+ * it, and writes it out. Memory stays at one buffer per input no matter how
+ * many words the files hold.
+ *
+ * Inputs can be binary WordCountFiles or text files from
+ * WordCounter.writeWordCount(filename, true). The total word count of the
+ * output is the sum of the inputs' totals. The output is written to a
+ * temporary file that only replaces `output` once the merge has succeeded.
+ */
+public class WordCountMerger {
+
+    /**
+     * A sorted stream of words and their counts
+     */
+    interface CountSource extends AutoCloseable {
+
+        /**
+         * Moves to the next entry and returns false once there are none left.
+         */
+        boolean next() throws IOException;
+
+        /**
+         * Returns the word of the current entry.
+         */
+        String word();
+
+        /**
+         * Returns the count of the current entry.
+         */
+        int count();
+
+        /**
+         * Returns the total word count of the file.
+         */
+        long totalWordCount();
+
+        @Override
+        void close() throws IOException;
+    }
+
+    /*
+     * Merge sorted count files into a new file. Returns the number of distinct
+     * words written.
+     */
+    public static int merge(List<String> inputs, String output, boolean binaryOutput) throws IOException {
+        ArrayList<CountSource> sources = new ArrayList<>();
+        try {
+            long totalWordCount = 0;
+            for (String input : inputs) {
+                CountSource source = open(input);
+                sources.add(source);
+                totalWordCount += source.totalWordCount();
+            }
+
+            if (binaryOutput) {
+                try (WordCountFile.Writer writer = new WordCountFile.Writer(output, totalWordCount)) {
+                    int size = merge(sources, inputs, writer::write);
+                    writer.finish();
+                    return size;
+                }
+            }
+
+            Path temporary = WordCountFile.temporaryFileFor(output);
+            try {
+                int size;
+                try (BufferedWriter writer = new BufferedWriter(new FileWriter(temporary.toFile()))) {
+                    writer.write("Total number of words: " + totalWordCount + "\n");
+                    size = merge(sources, inputs, (word, count) -> writer.write(word + " " + count + "\n"));
+                }
+                WordCountFile.replace(temporary, output);
+                return size;
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } finally {
+            for (CountSource source : sources) {
+                source.close();
+            }
+        }
+    }
+
+    /*
+     * Open a count file as a binary or text source, depending on how it starts
+     */
+    static CountSource open(String filename) throws IOException {
+        int magic = 0;
+        try (DataInputStream in = new DataInputStream(new FileInputStream(filename))) {
+            if (in.available() >= 4) {
+                magic = in.readInt();
+            }
+        }
+        return magic == WordCountFile.MAGIC ? new WordCountFile.Reader(filename) : new TextSource(filename);
+    }
+
+    /*
+     * Receives the merged entries in sorted order
+     */
+    private interface Sink {
+        void write(String word, int count) throws IOException;
+    }
+
+    /*
+     * Run the k-way merge of the sources into a sink
+     */
+    private static int merge(ArrayList<CountSource> sources, List<String> inputs, Sink sink) throws IOException {
+        PriorityQueue<Integer> queue = new PriorityQueue<>(
+                (a, b) -> sources.get(a).word().compareTo(sources.get(b).word()));
+
+        for (int i = 0; i < sources.size(); i++) {
+            if (sources.get(i).next()) {
+                queue.add(i);
+            }
+        }
+
+        int size = 0;
+        while (!queue.isEmpty()) {
+            int first = queue.poll();
+            String word = sources.get(first).word();
+            long count = sources.get(first).count();
+            advance(sources, inputs, queue, first);
+
+            while (!queue.isEmpty() && sources.get(queue.peek()).word().equals(word)) {
+                int next = queue.poll();
+                count += sources.get(next).count();
+                advance(sources, inputs, queue, next);
+            }
+
+            sink.write(word, Math.toIntExact(count));
+            size++;
+        }
+
+        return size;
+    }
+
+    /*
+     * Move a source to its next entry and put it back in the queue, checking
+     * the words are still in order
+     */
+    private static void advance(ArrayList<CountSource> sources, List<String> inputs,
+            PriorityQueue<Integer> queue, int i) throws IOException {
+        CountSource source = sources.get(i);
+        String previous = source.word();
+        if (source.next()) {
+            if (source.word().compareTo(previous) <= 0) {
+                throw new IOException(inputs.get(i) + ": words are not sorted at " + source.word());
+            }
+            queue.add(i);
+        }
+    }
+
+    /*
+     * Reads the text format of WordCounter.writeWordCount()
+     */
+    private static class TextSource implements CountSource {
+        private static final String HEADER = "Total number of words: ";
+
+        private String filename;
+        private BufferedReader reader;
+        private String pending;
+        private int lineNumber;
+        private long totalWordCount;
+        private String word;
+        private int count;
+
+        TextSource(String filename) throws IOException {
+            this.filename = filename;
+            reader = new BufferedReader(new FileReader(filename));
+            readLine();
+            if (pending != null && pending.startsWith(HEADER)) {
+                try {
+                    totalWordCount = Long.parseLong(pending.substring(HEADER.length()).trim());
+                } catch (NumberFormatException e) {
+                    reader.close();
+                    throw new IOException(filename + ": bad total on line " + lineNumber);
+                }
+                readLine();
+            }
+        }
+
+        /*
+         * Read the next line into pending
+         */
+        private void readLine() throws IOException {
+            pending = reader.readLine();
+            lineNumber++;
+        }
+
+        @Override
+        public boolean next() throws IOException {
+            while (pending != null && pending.isEmpty()) {
+                readLine();
+            }
+            if (pending == null) {
+                word = null;
+                return false;
+            }
+
+            int space = pending.lastIndexOf(' ');
+            if (space < 0) {
+                throw new IOException(filename + ": no count on line " + lineNumber);
+            }
+            word = pending.substring(0, space);
+            try {
+                count = Integer.parseInt(pending.substring(space + 1));
+            } catch (NumberFormatException e) {
+                throw new IOException(filename + ": bad count on line " + lineNumber);
+            }
+            readLine();
+            return true;
+        }
+
+        @Override
+        public String word() {
+            return word;
+        }
+
+        @Override
+        public int count() {
+            return count;
+        }
+
+        @Override
+        public long totalWordCount() {
+            return totalWordCount;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
@@ -5,98 +5,198 @@
 
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.regex.Pattern;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+public class WordCounter implements AutoCloseable {
 
-public class WordCounter {
+    MapSet<String, Integer> storageMap;
+    private CountingMapSet<String> counter;
+    private SketchMap sketchMap;
+    private ByteCountingMapSet bytesCounter;
+    private ConcurrentCountingMap concurrentCounter;
+    private HyperLogLog uniqueWords;
+    private String data_structure;
+    private double epsilon, delta;
+    private OffHeapCountingMap.Budget offHeapBudget;
+    private int totalWordCount;
+    private IgnoreFilter ignoreFilter;
+    private WordInterner interner;
+    private boolean foldCase;
+    private WordInterner foldInterner;
+    private ByteBuffer foldBuffer;
+    private CountingHashMap<String> casingCounts;
+    private HashMap<String, String> commonCasing;
+    private LiveTopK liveTop;
+    private BiFunction<String, Integer, Integer> incrementCount;
 
     /*
-     * Creating a private node class to store the max value with its key
+     * Smallest byte range countWordsForkJoin() will split further
      */
-    private class Node<K, V> {
-        private K key;
-        private V value;
+    private static final long MIN_SPLIT_SIZE = 8 << 20;
 
-        public Node() {
-            key = null;
-            value = null;
-        }
+    /*
+     * Most words a WordInterner keeps. The map holds every word already, so the
+     * interners only need the common ones to avoid creating a String per word.
+     */
+    private static final int INTERNED_WORDS = 1 << 16;
 
-        /*
-         * Get value of node
-         */
-        public V getValue() {
-            return value;
-        }
+    /*
+     * Error bound, failure probability and number of exactly counted heavy
+     * hitters of the "sketch" data structure
+     */
+    private static final double SKETCH_EPSILON = 1e-5;
+    private static final double SKETCH_DELTA = .01;
+    private static final int SKETCH_HEAVY_HITTERS = 1000;
 
-        /*
-         * Get key of node
-         */
-        public K getKey() {
-            return key;
-        }
+    /*
+     * Most direct memory the "offheap" data structure may use by default,
+     * shared with the partial counters of countWordsForkJoin() and
+     * ParallelWordCounter
+     */
+    private static final long OFF_HEAP_BUDGET = 1L << 30;
 
-        /*
-         * Set value of node
-         */
-        public void setValue(V val) {
-            this.value = val;
-        }
+    public WordCounter(String data_structure) {
+        this(data_structure, SKETCH_EPSILON, SKETCH_DELTA, new OffHeapCountingMap.Budget(OFF_HEAP_BUDGET),
+                IgnoreFilter.shared());
+    }
 
-        /*
-         * Set key of node
-         */
-        public void setKey(K key) {
-            this.key = key;
-        }
+    /*
+     * Create an approximate WordCounter that uses a fixed amount of memory.
+     * Counts are at most epsilon * totalWordCount() too high, except with
+     * probability delta.
+     */
+    public WordCounter(double epsilon, double delta) {
+        this("sketch", epsilon, delta, new OffHeapCountingMap.Budget(OFF_HEAP_BUDGET), IgnoreFilter.shared());
     }
 
-    MapSet<String, Integer> storageMap;
-    private int totalWordCount;
-    private HashMap<String, Integer> ignoreHashMap;
-    Node<String, Integer> maxNode;
-    ArrayList<MapSet.KeyValuePair<String, Integer>> maxTracker;
+    /*
+     * Create a WordCounter whose "offheap" map may use at most offHeapBudget
+     * bytes of direct memory, together with its partial counters. Counting
+     * more words than fit throws an IllegalStateException.
+     */
+    public WordCounter(String data_structure, long offHeapBudget) {
+        this(data_structure, SKETCH_EPSILON, SKETCH_DELTA, new OffHeapCountingMap.Budget(offHeapBudget),
+                IgnoreFilter.shared());
+    }
 
-    public WordCounter(String data_structure) {
+    /*
+     * Create a WordCounter with its own list of words to ignore
+     */
+    public WordCounter(String data_structure, IgnoreFilter ignoreFilter) {
+        this(data_structure, SKETCH_EPSILON, SKETCH_DELTA, new OffHeapCountingMap.Budget(OFF_HEAP_BUDGET),
+                ignoreFilter);
+    }
+
+    private WordCounter(String data_structure, double epsilon, double delta,
+            OffHeapCountingMap.Budget offHeapBudget, IgnoreFilter ignoreFilter) {
 
-        maxNode = new Node<>();
-        maxTracker = new ArrayList<>();
+        liveTop = new LiveTopK(10);
 
         if (data_structure.equals("bst")) {
             storageMap = new BSTMap<String, Integer>();
+        } else if (data_structure.equals("avl")) {
+            storageMap = new AVLTreeMap<String, Integer>();
+        } else if (data_structure.equals("btree")) {
+            storageMap = new BTreeMap<String, Integer>();
         } else if (data_structure.equals("hashmap")) {
             storageMap = new HashMap<String, Integer>();
+        } else if (data_structure.equals("incremental")) {
+            storageMap = new HashMap<String, Integer>(16, .75, true);
+        } else if (data_structure.equals("probing")) {
+            storageMap = new ProbingHashMap<String, Integer>();
+        } else if (data_structure.equals("counting")) {
+            counter = new CountingHashMap<String>();
+            storageMap = counter;
+        } else if (data_structure.equals("arena")) {
+            bytesCounter = new ArenaCountingMap();
+            counter = bytesCounter;
+            storageMap = counter;
+        } else if (data_structure.equals("concurrent")) {
+            concurrentCounter = new ConcurrentCountingMap();
+            counter = concurrentCounter;
+            storageMap = counter;
+        } else if (data_structure.equals("offheap")) {
+            bytesCounter = new OffHeapCountingMap(offHeapBudget);
+            counter = bytesCounter;
+            storageMap = counter;
+        } else if (data_structure.equals("sketch")) {
+            sketchMap = new SketchMap(epsilon, delta, SKETCH_HEAVY_HITTERS);
+            counter = sketchMap;
+            storageMap = counter;
+            uniqueWords = new HyperLogLog();
         }
 
+        this.data_structure = data_structure;
+        this.epsilon = epsilon;
+        this.delta = delta;
+        this.offHeapBudget = offHeapBudget;
         totalWordCount = 0;
-        this.ignoreHashMap = readIgnore();
+        interner = new WordInterner(1024, false, INTERNED_WORDS);
+        incrementCount = this::incrementCount;
+        this.ignoreFilter = ignoreFilter;
     }
 
     /*
-     * Function to read the words in the list of words to ignore
+     * Create an empty WordCounter with the same data structure and ignore list,
+     * for counting part of the input separately. An "offheap" partial takes its
+     * memory from this WordCounter's budget.
      */
-    private HashMap<String, Integer> readIgnore() {
-
-        HashMap<String, Integer> output = new HashMap<>();
+    WordCounter newPartial() {
+        WordCounter partial = new WordCounter(data_structure, epsilon, delta, offHeapBudget, ignoreFilter);
+        partial.setCaseFolding(foldCase, casingCounts != null);
+        return partial;
+    }
 
-        try {
-            FileReader reader = new FileReader("ignoreWords.txt");
-            BufferedReader bufferedReader = new BufferedReader(reader);
+    /*
+     * Count words that only differ in case, like "Peace" and "peace", as one
+     * word stored in lowercase. If trackCasing is true, also keep how often each
+     * original casing was seen, for commonCasing(). Clears the map.
+     */
+    public void setCaseFolding(boolean foldCase, boolean trackCasing) {
+        if (trackCasing && sketchMap != null) {
+            throw new IllegalArgumentException("WordCounter.setCaseFolding():: casings cannot be tracked with a sketch");
+        }
 
-            String line = bufferedReader.readLine();
+        this.foldCase = foldCase;
+        // the sketch and the byte data structures do not keep String keys, so they
+        // only need lowercase Strings for the casing table
+        boolean stringKeys = sketchMap == null && bytesCounter == null;
+        foldInterner = foldCase && (stringKeys || trackCasing)
+                ? new WordInterner(1024, true, INTERNED_WORDS)
+                : null;
+        casingCounts = foldCase && trackCasing ? new CountingHashMap<String>() : null;
+        commonCasing = foldCase && trackCasing ? new HashMap<String, String>() : null;
+        clearMap();
+    }
 
-            while (line != null) {
-                output.put(line, 0);
+    /*
+     * Read the words from a file and return an ArrayList
+     */
+    public ArrayList<String> readWords(String filename) {
 
-                line = bufferedReader.readLine();
-            }
+        ArrayList<String> output = new ArrayList<>();
 
-            bufferedReader.close();
+        try {
+            WordTokenizer.tokenize(filename, (buffer, start, length) -> {
+                output.add(interner.intern(buffer, start, length));
+            });
 
             totalWordCount = output.size();
 
@@ -104,76 +204,170 @@ public class WordCounter {
 
         } catch (FileNotFoundException e) {
 
-            System.out.println("WordCounter.readWords():: unable to open file " + "ignoreWords.txt");
+            System.out.println("WordCounter.readWords():: unable to open file " + filename);
         } catch (IOException e) {
 
-            System.out.println("WordCounter.readWords():: error reading file " + "ignoreWords.txt");
+            System.out.println("WordCounter.readWords():: error reading file " + filename);
         }
 
         return null;
     }
 
     /*
-     * Read the words from a file and return an ArrayList
+     * Create a map (hashmap or BST) from the ArrayList from readWords()
      */
-    public ArrayList<String> readWords(String filename) {
+    public double buildMap(ArrayList<String> words) {
+        double start = System.currentTimeMillis();
 
-        ArrayList<String> output = new ArrayList<>();
+        for (String word : words) {
+            countWord(word);
+        }
+
+        double end = System.currentTimeMillis();
+
+        return end - start;
+    }
+
+    /*
+     * Read the words from a memory mapped file and count them straight into the
+     * map, without holding the whole file in an ArrayList first
+     */
+    public double countWords(String filename) {
+        double start = System.currentTimeMillis();
 
         try {
-            FileReader reader = new FileReader(filename);
-            BufferedReader bufferedReader = new BufferedReader(reader);
+            totalWordCount = (int) WordTokenizer.tokenize(filename, this::countWord);
 
-            String line = bufferedReader.readLine();
+        } catch (FileNotFoundException e) {
 
-            while (line != null) {
-                String[] newArr = line.split("[ ]+");
+            System.out.println("WordCounter.countWords():: unable to open file " + filename);
+        } catch (IOException e) {
 
-                for (String newString : newArr) {
-                    if (Pattern.matches("[a-zA-Z]+", newString)) {
-                        output.add(newString);
-                    }
-                }
+            System.out.println("WordCounter.countWords():: error reading file " + filename);
+        }
 
-                line = bufferedReader.readLine();
-            }
+        double end = System.currentTimeMillis();
 
-            bufferedReader.close();
+        return end - start;
+    }
 
-            totalWordCount = output.size();
+    /*
+     * Count the words of a single file by splitting it into byte ranges that are
+     * counted in parallel, each into its own map, and then merging the maps
+     */
+    public double countWordsForkJoin(String filename) {
+        return countWordsForkJoin(filename, 0);
+    }
 
-            return output;
+    /*
+     * Count the words of a single file in parallel, splitting it into byte
+     * ranges no larger than splitSize, or ranges sized for the common pool if
+     * splitSize is 0
+     */
+    double countWordsForkJoin(String filename, long splitSize) {
+        double start = System.currentTimeMillis();
+
+        try {
+            FileInputStream input = new FileInputStream(filename);
+
+            try {
+                FileChannel channel = input.getChannel();
+                long size = channel.size();
+                if (splitSize == 0) {
+                    splitSize = Math.max(MIN_SPLIT_SIZE, size / (4 * ForkJoinPool.commonPool().getParallelism()));
+                }
+
+                WordCounter counted = ForkJoinPool.commonPool()
+                        .invoke(new RangeTask(this, channel, 0, size, splitSize));
+                try {
+                    merge(counted);
+                } finally {
+                    counted.close();
+                }
+            } finally {
+                input.close();
+            }
 
         } catch (FileNotFoundException e) {
 
-            System.out.println("WordCounter.readWords():: unable to open file " + filename);
+            System.out.println("WordCounter.countWordsForkJoin():: unable to open file " + filename);
         } catch (IOException e) {
 
-            System.out.println("WordCounter.readWords():: error reading file " + filename);
+            System.out.println("WordCounter.countWordsForkJoin():: error reading file " + filename);
+        } catch (UncheckedIOException e) {
+
+            System.out.println("WordCounter.countWordsForkJoin():: error reading file " + filename);
         }
 
-        return null;
+        double end = System.currentTimeMillis();
+
+        return end - start;
     }
 
     /*
-     * Create a map (hashmap or BST) from the ArrayList from readWords()
+     * Count the words of a single file with several threads that all add to
+     * the same map, each tokenizing its own byte range of the file. Needs the
+     * "concurrent" data structure. Returns the time taken in milliseconds.
      */
-    public double buildMap(ArrayList<String> words) {
+    public double countWordsConcurrent(String filename, int threads) {
+        if (concurrentCounter == null) {
+            throw new IllegalStateException("WordCounter.countWordsConcurrent():: needs the \"concurrent\" data structure");
+        }
+        if (casingCounts != null) {
+            throw new IllegalStateException("WordCounter.countWordsConcurrent():: casings cannot be tracked");
+        }
+
         double start = System.currentTimeMillis();
 
-        for (String word : words) {
-            if (storageMap.containsKey(word)) {
-                int wordValue = storageMap.get(word);
-                storageMap.put(word, ++wordValue);
-                if (maxNode.getKey() == null || maxNode.getValue() < wordValue) {
-                    maxNode.setKey(word);
-                    maxNode.setValue(wordValue);
+        try {
+            FileInputStream input = new FileInputStream(filename);
+
+            try {
+                FileChannel channel = input.getChannel();
+                long size = channel.size();
+
+                long[] bounds = new long[threads + 1];
+                bounds[threads] = size;
+                for (int i = 1; i < threads; i++) {
+                    bounds[i] = nextBoundary(channel, Math.max(bounds[i - 1], size / threads * i), size);
                 }
-            } else {
-                if (ignoreHashMap.get(word.toLowerCase()) == null) {
-                    storageMap.put(word, 1);
+
+                ExecutorService executor = Executors.newFixedThreadPool(threads);
+                ArrayList<Future<Long>> futures = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    long from = bounds[i];
+                    long to = bounds[i + 1];
+                    futures.add(executor.submit(() -> countRangeConcurrent(channel, from, to)));
                 }
+
+                long words = 0;
+                try {
+                    for (Future<Long> future : futures) {
+                        words += future.get();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("WordCounter.countWordsConcurrent():: interrupted while counting "
+                            + filename, e);
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof IOException) {
+                        throw (IOException) e.getCause();
+                    }
+                    throw new RuntimeException(e.getCause());
+                } finally {
+                    stopAll(executor, futures);
+                }
+                totalWordCount = (int) words;
+            } finally {
+                input.close();
             }
+
+        } catch (FileNotFoundException e) {
+
+            System.out.println("WordCounter.countWordsConcurrent():: unable to open file " + filename);
+        } catch (IOException e) {
+
+            System.out.println("WordCounter.countWordsConcurrent():: error reading file " + filename);
         }
 
         double end = System.currentTimeMillis();
@@ -181,14 +375,409 @@ public class WordCounter {
         return end - start;
     }
 
+    /*
+     * Cancel the counting tasks that are left and wait until none of them is
+     * still adding to the map
+     */
+    private static void stopAll(ExecutorService executor, ArrayList<Future<Long>> futures) {
+        for (Future<Long> future : futures) {
+            future.cancel(true);
+        }
+        executor.shutdownNow();
+
+        boolean interrupted = false;
+        while (!executor.isTerminated()) {
+            try {
+                executor.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /*
+     * Count the bytes from `from` to `to` of a file into the shared map. Each
+     * thread interns its own words, so the threads only share the map. Stops
+     * with a CancellationException once its thread is interrupted.
+     */
+    private long countRangeConcurrent(FileChannel channel, long from, long to) throws IOException {
+        WordInterner local = new WordInterner(1024, foldCase, INTERNED_WORDS);
+
+        return WordTokenizer.tokenize(channel, from, to, (buffer, start, length) -> {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException();
+            }
+            // ignored words are the most common ones, so they are turned away before
+            // they reach the map, where missing every time would take a stripe's lock
+            if (ignoreFilter.contains(buffer, start, length)) {
+                return;
+            }
+            // increment() does not read back the count, so hot words never take a lock
+            concurrentCounter.increment(local.intern(buffer, start, length), 1);
+        });
+    }
+
+    /*
+     * Counts the bytes from `from` to `to` of a file, splitting the range in two
+     * at a word boundary while it is larger than splitSize. Every partial that
+     * is not handed back is closed, even when a range fails, so an "offheap"
+     * partial always gives its memory back to the shared budget.
+     */
+    private static class RangeTask extends RecursiveTask<WordCounter> {
+        private static final long serialVersionUID = 1L;
+
+        private WordCounter parent;
+        private FileChannel channel;
+        private long from, to, splitSize;
+
+        public RangeTask(WordCounter parent, FileChannel channel, long from, long to, long splitSize) {
+            this.parent = parent;
+            this.channel = channel;
+            this.from = from;
+            this.to = to;
+            this.splitSize = splitSize;
+        }
+
+        @Override
+        protected WordCounter compute() {
+            try {
+                if (to - from > splitSize) {
+                    long middle = nextBoundary(channel, from + (to - from) / 2, to);
+                    if (middle < to) {
+                        RangeTask left = new RangeTask(parent, channel, from, middle, splitSize);
+                        RangeTask right = new RangeTask(parent, channel, middle, to, splitSize);
+                        left.fork();
+                        WordCounter counted = null;
+                        WordCounter leftCounted = null;
+                        boolean merged = false;
+                        try {
+                            counted = right.compute();
+                            leftCounted = left.join();
+                            counted.merge(leftCounted);
+                            merged = true;
+                            return counted;
+                        } finally {
+                            if (leftCounted == null) {
+                                // wait for the left half even if the right one failed, to close it
+                                leftCounted = joinQuietly(left);
+                            }
+                            closePartial(leftCounted);
+                            if (!merged) {
+                                closePartial(counted);
+                            }
+                        }
+                    }
+                }
+
+                WordCounter counted = parent.newPartial();
+                boolean done = false;
+                try {
+                    counted.totalWordCount += (int) WordTokenizer.tokenize(channel, from, to, counted::countWord);
+                    done = true;
+                    return counted;
+                } finally {
+                    if (!done) {
+                        counted.close();
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /*
+         * Returns what a task counted, or null if it failed
+         */
+        private static WordCounter joinQuietly(RangeTask task) {
+            try {
+                return task.join();
+            } catch (RuntimeException | Error e) {
+                return null;
+            }
+        }
+
+        /*
+         * Close a partial that is no longer needed, if there is one
+         */
+        private static void closePartial(WordCounter partial) {
+            if (partial != null) {
+                partial.close();
+            }
+        }
+    }
+
+    /*
+     * Returns the position just after the first delimiter at or after `position`,
+     * or `to` if there is none
+     */
+    private static long nextBoundary(FileChannel channel, long position, long to) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+
+        while (position < to) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), to - position));
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (WordTokenizer.isDelimiter(buffer.get(i))) {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+
+        return to;
+    }
+
+    /*
+     * Add a word given as a range of bytes to the map
+     */
+    private void countWord(ByteBuffer buffer, int start, int length) {
+        if (sketchMap != null) {
+            // check the bytes first so ignored words never become Strings; interning
+            // would keep every distinct word, which a sketch is meant to avoid
+            if (!ignoreFilter.contains(buffer, start, length)) {
+                countSketchWord(foldCase ? WordInterner.toFoldedString(buffer, start, length)
+                        : WordInterner.toString(buffer, start, length));
+            }
+        } else if (bytesCounter != null) {
+            // count straight from the bytes, lowercased into a scratch buffer if case
+            // folding is on, so no String is created for any word
+            ByteBuffer key = foldCase ? foldedBytes(buffer, start, length) : buffer;
+            int keyStart = foldCase ? 0 : start;
+            int count = bytesCounter.addIfPresent(key, keyStart, length, 1);
+            if (count == 0 && !ignoreFilter.contains(buffer, start, length)) {
+                count = bytesCounter.add(key, keyStart, length, 1);
+            }
+            if (count != 0 && casingCounts != null) {
+                countCasing(foldInterner.intern(key, keyStart, length), interner.intern(buffer, start, length));
+            }
+        } else if (foldCase) {
+            String key = internCounted(foldInterner, buffer, start, length);
+            if (key != null && countKey(key) != 0 && casingCounts != null) {
+                countCasing(key, interner.intern(buffer, start, length));
+            }
+        } else {
+            String word = internCounted(interner, buffer, start, length);
+            if (word != null) {
+                countKey(word);
+            }
+        }
+    }
+
+    /*
+     * Copy a word given as a range of bytes into the scratch buffer in
+     * lowercase. Returns the scratch buffer, which holds the word from index 0.
+     */
+    private ByteBuffer foldedBytes(ByteBuffer buffer, int start, int length) {
+        if (foldBuffer == null || foldBuffer.capacity() < length) {
+            foldBuffer = ByteBuffer.allocate(Math.max(64, Integer.highestOneBit(length) << 1));
+        }
+        for (int i = 0; i < length; i++) {
+            foldBuffer.put(i, (byte) IgnoreFilter.fold((char) buffer.get(start + i)));
+        }
+        return foldBuffer;
+    }
+
+    /*
+     * Returns the String for a word given as a range of bytes, or null if it
+     * is a word that has not been seen before and is in the ignore list. Only
+     * words that get counted are turned into Strings.
+     */
+    private String internCounted(WordInterner words, ByteBuffer buffer, int start, int length) {
+        String word = words.find(buffer, start, length);
+        if (word == null && !ignoreFilter.contains(buffer, start, length)) {
+            word = words.intern(buffer, start, length);
+        }
+        return word;
+    }
+
+    /*
+     * Add a single word to the map, folding its case if case folding is on
+     */
+    private void countWord(String word) {
+        if (!foldCase) {
+            countKey(word);
+            return;
+        }
+
+        String key = foldedKey(word);
+        if (countKey(key) != 0 && casingCounts != null) {
+            countCasing(key, word);
+        }
+    }
+
+    /*
+     * Add one to the count of a key, skipping new keys that are in the ignore
+     * list. Returns the new count, or 0 if the key was ignored.
+     */
+    private int countKey(String word) {
+        if (sketchMap != null) {
+            // a sketch cannot tell new words apart, so check every word
+            return isIgnored(word) ? 0 : countSketchWord(word);
+        }
+
+        if (counter != null) {
+            int wordValue = counter.addIfPresent(word, 1);
+            if (wordValue != 0) {
+                liveTop.update(word, wordValue);
+            } else if (!isIgnored(word)) {
+                wordValue = counter.add(word, 1);
+                liveTop.update(word, 1);
+            }
+            return wordValue;
+        }
+
+        Integer wordValue = storageMap.compute(word, incrementCount);
+        if (wordValue == null) {
+            return 0;
+        }
+        liveTop.update(word, wordValue);
+        return wordValue;
+    }
+
+    /*
+     * Add a word that is not ignored to the sketch
+     */
+    private int countSketchWord(String word) {
+        int wordValue = sketchMap.add(word, 1);
+        liveTop.update(word, wordValue);
+        uniqueWords.add(word);
+        return wordValue;
+    }
+
+    /*
+     * Count one more use of an original casing of a lowercase key
+     */
+    private void countCasing(String key, String casing) {
+        updateCommonCasing(key, casing, casingCounts.add(casing, 1));
+    }
+
+    /*
+     * Make a casing the most common one of its key if its count is now higher
+     */
+    private void updateCommonCasing(String key, String casing, int count) {
+        String common = commonCasing.get(key);
+        if (common == null || (!common.equals(casing) && count > casingCounts.getCount(common))) {
+            commonCasing.put(key, casing);
+        }
+    }
+
+    /*
+     * Get the most common original casing of a word, or null if casings are not
+     * tracked or the word was never counted
+     */
+    public String commonCasing(String word) {
+        return commonCasing == null ? null : commonCasing.get(key(word));
+    }
+
+    /*
+     * The key a word is stored under: the word itself, or its lowercase form
+     * when case folding is on
+     */
+    private String key(String word) {
+        if (!foldCase) {
+            return word;
+        }
+        String key = foldInterner != null ? foldInterner.find(word) : null;
+        return key != null ? key : WordInterner.toFoldedString(word);
+    }
+
+    /*
+     * The lowercase key of a word, shared with earlier uses of the word if
+     * lowercase Strings are interned
+     */
+    private String foldedKey(String word) {
+        return foldInterner != null ? foldInterner.intern(word) : WordInterner.toFoldedString(word);
+    }
+
+    /*
+     * New count of a word given its current count, or null for a new word that
+     * should be ignored
+     */
+    private Integer incrementCount(String word, Integer count) {
+        if (count != null) {
+            return count + 1;
+        }
+        return isIgnored(word) ? null : 1;
+    }
+
+    /*
+     * Check if a word is in the list of words to ignore
+     */
+    private boolean isIgnored(String word) {
+        return ignoreFilter.contains(word);
+    }
+
+    /*
+     * Add all the counts of another WordCounter to this one
+     */
+    public void merge(WordCounter other) {
+        if (sketchMap != null && other.sketchMap != null) {
+            sketchMap.merge(other.sketchMap);
+            uniqueWords.merge(other.uniqueWords);
+            for (MapSet.KeyValuePair<String, Integer> entry : sketchMap.entrySet()) {
+                liveTop.update(entry.getKey(), entry.getValue());
+            }
+            totalWordCount += other.totalWordCount;
+            return;
+        }
+
+        for (MapSet.KeyValuePair<String, Integer> entry : other.storageMap.entrySet()) {
+            String word = foldCase ? foldedKey(entry.getKey()) : entry.getKey();
+            int wordValue;
+            if (counter != null) {
+                wordValue = counter.add(word, entry.getValue());
+            } else {
+                wordValue = storageMap.merge(word, entry.getValue(), Integer::sum);
+            }
+            liveTop.update(word, wordValue);
+        }
+
+        if (casingCounts != null && other.casingCounts != null) {
+            other.casingCounts.forEachCount((casing, count) ->
+                    updateCommonCasing(foldInterner.intern(casing), casing, casingCounts.add(casing, count)));
+        }
+
+        totalWordCount += other.totalWordCount;
+    }
+
     /*
      * Clear the map
      */
     public void clearMap() {
         storageMap.clear();
+        interner.clear();
+        liveTop.clear();
+        if (foldInterner != null) {
+            foldInterner.clear();
+        }
+        if (casingCounts != null) {
+            casingCounts.clear();
+            commonCasing.clear();
+        }
+        if (uniqueWords != null) {
+            uniqueWords.clear();
+        }
         totalWordCount = 0;
     }
 
+    /*
+     * Free the memory of the "offheap" data structure now instead of waiting
+     * for the garbage collector. The WordCounter cannot be used after this.
+     */
+    @Override
+    public void close() {
+        if (bytesCounter instanceof OffHeapCountingMap) {
+            ((OffHeapCountingMap) bytesCounter).close();
+        }
+    }
+
     /*
      * Get the total word count
      */
@@ -197,16 +786,33 @@ public class WordCounter {
     }
 
     /*
-     * Get the total unique word count
+     * Get the total unique word count. With the "sketch" data structure this is
+     * a HyperLogLog estimate.
      */
     public int uniqueWordCount() {
+        if (uniqueWords != null) {
+            return (int) uniqueWords.estimate();
+        }
+
         return storageMap.size();
     }
 
+    /*
+     * Get the HyperLogLog of the words counted, or null when the unique word
+     * count is exact
+     */
+    public HyperLogLog uniqueWordSketch() {
+        return uniqueWords;
+    }
+
     /*
      * Get the total count of a word
      */
     public int getCount(String word) {
+        word = key(word);
+        if (counter != null) {
+            return counter.getCount(word);
+        }
         return storageMap.containsKey(word) ? storageMap.get(word) : 0;
     }
 
@@ -221,6 +827,14 @@ public class WordCounter {
      * Write a new file with keys and their corresponding values
      */
     public boolean writeWordCount(String filename) {
+        return writeWordCount(filename, false);
+    }
+
+    /*
+     * Write a new file with keys and their corresponding values, sorted by key
+     * if `sorted` is true so the file can be merged with WordCountMerger
+     */
+    public boolean writeWordCount(String filename, boolean sorted) {
         createFile(filename);
 
         try {
@@ -228,7 +842,12 @@ public class WordCounter {
 
             writer.write("Total number of words: " + totalWordCount() + "\n");
 
-            for (MapSet.KeyValuePair<String, Integer> entry : storageMap.entrySet()) {
+            ArrayList<MapSet.KeyValuePair<String, Integer>> entries = storageMap.entrySet();
+            if (sorted) {
+                entries.sort((a, b) -> a.getKey().compareTo(b.getKey()));
+            }
+
+            for (MapSet.KeyValuePair<String, Integer> entry : entries) {
                 writer.write(entry.getKey() + " " + entry.getValue() + "\n");
 
             }
@@ -257,45 +876,61 @@ public class WordCounter {
     }
 
     /*
-     * Find the most frequent words
+     * Keep the k most frequent words up to date while counting, starting from
+     * the words already in the map
      */
-    public ArrayList<String> mostFrequentWords() {
-        int minVal = 0;
-        MapSet.KeyValuePair<String, Integer> minEntry = new MapSet.KeyValuePair<String, Integer>(null, null);
-        LinkedList<MapSet.KeyValuePair<String, Integer>> mostFrequent = new LinkedList<>();
-        ArrayList<String> words = new ArrayList<>();
-
-        for (MapSet.KeyValuePair<String, Integer> entry : storageMap.entrySet()) {
+    public void trackTopWords(int k) {
+        LiveTopK tracker = new LiveTopK(k);
+        for (MapSet.KeyValuePair<String, Integer> entry : topWords(k)) {
+            tracker.update(entry.getKey(), entry.getValue());
+        }
+        liveTop = tracker;
+    }
 
-            if (mostFrequent.size() <= 10) {
-                mostFrequent.add(entry);
+    /*
+     * Get the most frequent words counted so far with their counts, most
+     * frequent first, without walking the map. Holds as many words as the last
+     * call to trackTopWords() asked for, or 10 by default. The "arena" and
+     * "offheap" data structures do not create Strings while counting, and the
+     * "concurrent" one is counted into by many threads, so they walk the map.
+     */
+    public ArrayList<MapSet.KeyValuePair<String, Integer>> liveTopWords() {
+        if (bytesCounter != null || concurrentCounter != null) {
+            return topWords(liveTop.capacity());
+        }
+        return liveTop.sortedEntries();
+    }
 
-                if (entry.getValue() > minVal) {
-                    minVal = entry.getValue();
-                    minEntry = entry;
-                }
-            } else {
-                if (entry.getValue() > minVal) {
-                    mostFrequent.remove(minEntry);
-                    mostFrequent.add(entry);
-                    minVal = entry.getValue();
-
-                    for (MapSet.KeyValuePair<String, Integer> item : mostFrequent) {
-                        if (item.getValue() < minVal) {
-                            minVal = item.getValue();
-                            minEntry = item;
-                        }
-                    }
-                }
-            }
+    /*
+     * Find the 10 most frequent words
+     */
+    public ArrayList<String> mostFrequentWords() {
+        ArrayList<String> words = new ArrayList<>();
 
-        }
-        for (MapSet.KeyValuePair<String, Integer> item : mostFrequent) {
+        for (MapSet.KeyValuePair<String, Integer> item : topWords(10)) {
             words.add(item.getKey());
         }
 
         return words;
+    }
+
+    /*
+     * Find the k most frequent words with their counts, most frequent first
+     */
+    public ArrayList<MapSet.KeyValuePair<String, Integer>> topWords(int k) {
+        TopKHeap heap = new TopKHeap(k);
+
+        if (bytesCounter != null) {
+            bytesCounter.offerTo(heap);
+        } else if (concurrentCounter != null) {
+            concurrentCounter.offerTo(heap);
+        } else if (counter != null) {
+            counter.forEachCount(heap::offer);
+        } else {
+            storageMap.forEach(heap::offer);
+        }
 
+        return heap.sortedEntries();
     }
 
     /*
@@ -311,10 +946,16 @@ public class WordCounter {
 
             String line = bufferedReader.readLine();
 
+            // skip the header written by writeWordCount(), keeping its total
+            if (line != null && line.startsWith("Total number of words: ")) {
+                totalWordCount = Integer.parseInt(line.substring(23).trim());
+                line = bufferedReader.readLine();
+            }
+
             while (line != null) {
                 String[] newArr = line.split("[ ]+");
 
-                storageMap.put(newArr[0], Integer.parseInt(newArr[1]));
+                loadCount(newArr[0], Integer.parseInt(newArr[1]));
 
                 line = bufferedReader.readLine();
             }
@@ -333,6 +974,94 @@ public class WordCounter {
 
     }
 
+    /*
+     * Write the word counts to a binary WordCountFile, sorted by word
+     */
+    public boolean writeWordCountBinary(String filename) {
+        try {
+            WordCountFile.write(filename, totalWordCount, storageMap);
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /*
+     * Write the word counts to a WordCountIndex file that can be queried
+     * without loading it
+     */
+    public boolean writeWordCountIndex(String filename) {
+        try {
+            WordCountIndex.write(filename, totalWordCount, storageMap);
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /*
+     * Read the word counts from a file created by writeWordCountBinary()
+     */
+    public boolean readWordCountBinary(String filename) {
+        clearMap();
+
+        try {
+            WordCountFile file = WordCountFile.read(filename);
+
+            if (storageMap instanceof BSTMap) {
+                // the words are sorted, so insert middles first to keep the tree balanced
+                loadBalanced(file, 0, file.size() - 1);
+            } else {
+                for (int i = 0; i < file.size(); i++) {
+                    loadCount(file.word(i), file.count(i));
+                }
+            }
+
+            totalWordCount = (int) file.totalWordCount();
+            return true;
+
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /*
+     * Load the words from index lo to hi (inclusive), middle first
+     */
+    private void loadBalanced(WordCountFile file, int lo, int hi) {
+        if (lo > hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        loadCount(file.word(mid), file.count(mid));
+        loadBalanced(file, lo, mid - 1);
+        loadBalanced(file, mid + 1, hi);
+    }
+
+    /*
+     * Set the count of a word read from a file
+     */
+    private void loadCount(String word, int count) {
+        if (foldCase) {
+            word = foldedKey(word);
+        }
+
+        // add rather than put, since with case folding several lines can share a key
+        int wordValue;
+        if (counter != null) {
+            wordValue = counter.add(word, count);
+        } else {
+            wordValue = storageMap.merge(word, count, Integer::sum);
+        }
+        liveTop.update(word, wordValue);
+        if (uniqueWords != null) {
+            uniqueWords.add(word);
+        }
+    }
+
     public static void main(String[] args) {
         WordCounter testBST = new WordCounter("bst");
         String word = "peace";
@@ -344,8 +1073,7 @@ public class WordCounter {
         for (int i = 0; i < 8; i++) {
             int year = start + i;
             System.out.print(year);
-            ArrayList<String> fileBST = testBST.readWords("reddit_comments_" + year + ".txt");
-            testBST.buildMap(fileBST);
+            testBST.countWords("reddit_comments_" + year + ".txt");
             // int maxDepth = testBST.storageMap.maxDepth();
             // testBST.writeWordCount("bst_test_" + year + ".txt");
             // System.out.println("Done: " + timeTaken + "ms");
@@ -367,7 +1095,7 @@ public class WordCounter {
 
         // finalString += year + " Time Taken: " + timeTaken + " Depth: " + maxDepth + "
         // Frequent word: "
-        // + testHashmap.maxNode.getKey() + "\n";
+        // + testHashmap.liveTopWords().get(0).getKey() + "\n";
         // }
 
         // System.out.println(finalString);
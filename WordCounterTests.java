@@ -3,7 +3,13 @@
  * Class Purpose: Working with the HashMaps and Binary Search Trees
  */
 
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 public class WordCounterTests {
 
@@ -53,6 +59,877 @@ public class WordCounterTests {
             assert map.uniqueWordCount() != 0 : " Error in buildMap()";
         }
 
+        /*
+         * Test the IgnoreFilter ignores case, checks bytes, and is shared
+         */
+        {
+            // Setup
+            IgnoreFilter filter = new IgnoreFilter(Arrays.asList("The", "of", "and"));
+            ByteBuffer bytes = ByteBuffer.wrap("xxOFxx".getBytes());
+            WordCounter counter = new WordCounter("counting", filter);
+            counter.buildMap(new ArrayList<>(Arrays.asList("the", "THE", "theory", "Of", "peace")));
+
+            // Verify
+            System.out.println(filter.contains("tHe") + " == true");
+            System.out.println(filter.contains("theory") + " == false");
+            System.out.println(filter.contains(bytes, 2, 2) + " == true");
+            System.out.println(filter.contains(bytes, 1, 3) + " == false");
+            System.out.println(counter.uniqueWordCount() + " == 2");
+            System.out.println((IgnoreFilter.shared() == IgnoreFilter.shared()) + " == true");
+
+            // Test
+            assert filter.contains("tHe") : "Error in IgnoreFilter.contains()";
+            assert !filter.contains("theory") : "Error in IgnoreFilter.contains()";
+            assert filter.contains(bytes, 2, 2) : "Error in IgnoreFilter.contains()";
+            assert !filter.contains(bytes, 1, 3) : "Error in IgnoreFilter.contains()";
+            assert counter.uniqueWordCount() == 2 : "Error in WordCounter with IgnoreFilter";
+            assert IgnoreFilter.shared() == IgnoreFilter.shared() : "Error in IgnoreFilter.shared()";
+        }
+
+        /*
+         * Test readWords() accepts the same words as splitting on spaces and
+         * matching [a-zA-Z]+
+         */
+        {
+            // Setup
+            WordCounter map = new WordCounter("hashmap");
+            ArrayList<String> words = null;
+            try {
+                File file = File.createTempFile("tokenizer", ".txt");
+                file.deleteOnExit();
+                FileWriter writer = new FileWriter(file);
+                writer.write("Hello  world,\r\ndon't\tstop caf\u00e9 peace\rwar \n\nend");
+                writer.close();
+                words = map.readWords(file.getPath());
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+
+            // Verify
+            System.out.println(words + " == [Hello, peace, war, end]");
+
+            // Test
+            assert words.toString().equals("[Hello, peace, war, end]") : "readWords() faulty";
+        }
+
+        /*
+         * Test WordInterner.find() only returns words that were interned
+         */
+        {
+            // Setup
+            WordInterner interner = new WordInterner(true);
+            ByteBuffer bytes = ByteBuffer.wrap("xxPeacexx".getBytes());
+            String before = interner.find(bytes, 2, 5);
+            String interned = interner.intern(bytes, 2, 5);
+
+            // Verify
+            System.out.println(before + " == null");
+            System.out.println(interner.find(bytes, 2, 5) + " == peace");
+            System.out.println(interner.find(bytes, 1, 5) + " == null");
+
+            // Test
+            assert before == null : "Error in WordInterner.find()";
+            assert interner.find(bytes, 2, 5) == interned : "Error in WordInterner.find()";
+            assert interner.find(bytes, 1, 5) == null : "Error in WordInterner.find()";
+        }
+
+        /*
+         * Test a full WordInterner forgets its words instead of growing
+         */
+        {
+            // Setup
+            WordInterner interner = new WordInterner(16, false, 100);
+            for (int i = 0; i < 250; i++) {
+                interner.intern("word" + i);
+            }
+
+            // Verify
+            System.out.println(interner.size() + " == 50");
+            System.out.println(interner.find("word249") + " == word249");
+            System.out.println(interner.find("word0") + " == null");
+
+            // Test
+            assert interner.size() == 50 : "Error in WordInterner bound";
+            assert "word249".equals(interner.find("word249")) : "Error in WordInterner bound";
+            assert interner.find("word0") == null : "Error in WordInterner bound";
+        }
+
+        /*
+         * Test countWords() gives the same map as readWords() and buildMap()
+         */
+        {
+            // Setup
+            WordCounter listMap = new WordCounter("hashmap");
+            listMap.buildMap(listMap.readWords("reddit_comments_2008.txt"));
+            WordCounter streamMap = new WordCounter("hashmap");
+            streamMap.countWords("reddit_comments_2008.txt");
+
+            // Verify
+            System.out.println(streamMap.totalWordCount() + " == " + listMap.totalWordCount());
+            System.out.println(streamMap.uniqueWordCount() + " == " + listMap.uniqueWordCount());
+            System.out.println(streamMap.getCount("peace") + " == " + listMap.getCount("peace"));
+
+            // Test
+            assert streamMap.totalWordCount() == listMap.totalWordCount() : "Error in countWords()";
+            assert streamMap.uniqueWordCount() == listMap.uniqueWordCount() : "Error in countWords()";
+            assert streamMap.getCount("peace") == listMap.getCount("peace") : "Error in countWords()";
+        }
+
+        /*
+         * Test the counting backend gives the same counts as the hashmap backend
+         */
+        {
+            // Setup
+            WordCounter hashMap = new WordCounter("hashmap");
+            hashMap.countWords("reddit_comments_2008.txt");
+            WordCounter counting = new WordCounter("counting");
+            counting.countWords("reddit_comments_2008.txt");
+
+            // Verify
+            System.out.println(counting.uniqueWordCount() + " == " + hashMap.uniqueWordCount());
+            System.out.println(counting.getCount("peace") + " == " + hashMap.getCount("peace"));
+
+            // Test
+            assert counting.uniqueWordCount() == hashMap.uniqueWordCount() : "Error in counting backend";
+            assert counting.getCount("peace") == hashMap.getCount("peace") : "Error in counting backend";
+        }
+
+        /*
+         * Test the incremental backend gives the same counts as the hashmap backend
+         */
+        {
+            // Setup
+            WordCounter hashMap = new WordCounter("hashmap");
+            hashMap.countWords("reddit_comments_2008.txt");
+            WordCounter incremental = new WordCounter("incremental");
+            incremental.countWords("reddit_comments_2008.txt");
+
+            // Verify
+            System.out.println(incremental.uniqueWordCount() + " == " + hashMap.uniqueWordCount());
+            System.out.println(incremental.getCount("peace") + " == " + hashMap.getCount("peace"));
+
+            // Test
+            assert incremental.uniqueWordCount() == hashMap.uniqueWordCount() : "Error in incremental backend";
+            assert incremental.getCount("peace") == hashMap.getCount("peace") : "Error in incremental backend";
+        }
+
+        /*
+         * Test the arena backend gives the same counts as the hashmap backend
+         */
+        {
+            // Setup
+            WordCounter hashMap = new WordCounter("hashmap");
+            hashMap.countWords("reddit_comments_2008.txt");
+            WordCounter arena = new WordCounter("arena");
+            arena.countWords("reddit_comments_2008.txt");
+            boolean sameCounts = true;
+            for (String word : hashMap.storageMap.keySet()) {
+                sameCounts &= arena.getCount(word) == hashMap.getCount(word);
+            }
+
+            // Verify
+            System.out.println(arena.uniqueWordCount() + " == " + hashMap.uniqueWordCount());
+            System.out.println(sameCounts + " == true");
+            System.out.println(arena.topWords(10) + " == " + hashMap.topWords(10));
+
+            // Test
+            assert arena.uniqueWordCount() == hashMap.uniqueWordCount() : "Error in arena backend";
+            assert sameCounts : "Error in arena backend";
+            assert arena.topWords(10).toString().equals(hashMap.topWords(10).toString()) : "Error in arena topWords()";
+        }
+
+        /*
+         * Test the offheap backend gives the same counts as the hashmap backend,
+         * also when counted with fork/join, and fails once its budget is used up
+         */
+        {
+            // Setup
+            WordCounter hashMap = new WordCounter("hashmap");
+            hashMap.countWords("reddit_comments_2008.txt");
+            WordCounter offHeap = new WordCounter("offheap");
+            offHeap.countWordsForkJoin("reddit_comments_2008.txt");
+            boolean sameCounts = true;
+            for (String word : hashMap.storageMap.keySet()) {
+                sameCounts &= offHeap.getCount(word) == hashMap.getCount(word);
+            }
+            offHeap.close();
+            WordCounter small = new WordCounter("offheap", 1 << 15);
+            boolean overBudget = false;
+            try {
+                small.countWords("reddit_comments_2008.txt");
+            } catch (IllegalStateException e) {
+                overBudget = true;
+            }
+            small.close();
+
+            // Verify
+            System.out.println(sameCounts + " == true");
+            System.out.println(overBudget + " == true");
+
+            // Test
+            assert sameCounts : "Error in offheap backend";
+            assert overBudget : "Error in offheap budget";
+        }
+
+        /*
+         * Test an offheap fork/join run that runs out of budget part way gives
+         * back all the memory its partial counters took
+         */
+        {
+            // Setup
+            WordCounter offHeap = new WordCounter("offheap", 200000);
+            OffHeapCountingMap.Budget budget = ((OffHeapCountingMap) offHeap.storageMap).budget();
+            long before = budget.usedBytes();
+            boolean overBudget = false;
+            try {
+                offHeap.countWordsForkJoin("reddit_comments_2008.txt", 16 << 10);
+            } catch (IllegalStateException e) {
+                overBudget = true;
+            }
+            long after = budget.usedBytes();
+            offHeap.close();
+
+            // Verify
+            System.out.println(overBudget + " == true");
+            System.out.println(after + " == " + before);
+            System.out.println(budget.usedBytes() + " == 0");
+
+            // Test
+            assert overBudget : "Error in offheap budget";
+            assert after == before : "failed fork/join run keeps partial memory";
+            assert budget.usedBytes() == 0 : "close() does not give back to the budget";
+        }
+
+        /*
+         * Test counting with several threads into the concurrent backend gives
+         * the same counts as the hashmap backend
+         */
+        {
+            // Setup
+            WordCounter hashMap = new WordCounter("hashmap");
+            hashMap.countWords("reddit_comments_2008.txt");
+            WordCounter concurrent = new WordCounter("concurrent");
+            concurrent.countWordsConcurrent("reddit_comments_2008.txt", 4);
+            boolean sameCounts = true;
+            for (String word : hashMap.storageMap.keySet()) {
+                sameCounts &= concurrent.getCount(word) == hashMap.getCount(word);
+            }
+
+            // Verify
+            System.out.println(concurrent.totalWordCount() + " == " + hashMap.totalWordCount());
+            System.out.println(concurrent.uniqueWordCount() + " == " + hashMap.uniqueWordCount());
+            System.out.println(sameCounts + " == true");
+            System.out.println(concurrent.liveTopWords() + " == " + hashMap.topWords(10));
+
+            // Test
+            assert concurrent.totalWordCount() == hashMap.totalWordCount() : "Error in countWordsConcurrent()";
+            assert concurrent.uniqueWordCount() == hashMap.uniqueWordCount() : "Error in countWordsConcurrent()";
+            assert sameCounts : "Error in countWordsConcurrent()";
+            assert concurrent.liveTopWords().toString().equals(hashMap.topWords(10).toString())
+                    : "Error in concurrent topWords()";
+        }
+
+        /*
+         * Test case folding counts "Like" and "like" as one word and keeps the
+         * most common casing
+         */
+        {
+            // Setup
+            WordCounter exact = new WordCounter("hashmap");
+            exact.countWords("reddit_comments_2008.txt");
+            WordCounter folded = new WordCounter("counting");
+            folded.setCaseFolding(true, true);
+            folded.countWords("reddit_comments_2008.txt");
+            int bothCasings = exact.getCount("Like") + exact.getCount("like");
+            String mostCommon = exact.getCount("Like") >= exact.getCount("like") ? "Like" : "like";
+
+            // Verify
+            System.out.println(folded.getCount("like") + " == " + bothCasings);
+            System.out.println(folded.getCount("LIKE") + " == " + bothCasings);
+            System.out.println(folded.commonCasing("like") + " == " + mostCommon);
+            System.out.println(folded.totalWordCount() + " == " + exact.totalWordCount());
+            System.out.println(folded.storageMap.containsKey("Like") + " == false");
+
+            // Test
+            assert folded.getCount("like") == bothCasings : "Error in case folding";
+            assert folded.getCount("LIKE") == bothCasings : "Error in case folding";
+            assert folded.commonCasing("like").equals(mostCommon) : "Error in commonCasing()";
+            assert folded.totalWordCount() == exact.totalWordCount() : "Error in case folding";
+            assert !folded.storageMap.containsKey("Like") : "Error in case folding";
+        }
+
+        /*
+         * Test case folding with the byte data structures counts the same words
+         * as with the counting one
+         */
+        {
+            // Setup
+            WordCounter folded = new WordCounter("counting");
+            folded.setCaseFolding(true, true);
+            folded.countWords("reddit_comments_2008.txt");
+            WordCounter arena = new WordCounter("arena");
+            arena.setCaseFolding(true, false);
+            arena.countWords("reddit_comments_2008.txt");
+            WordCounter offHeap = new WordCounter("offheap");
+            offHeap.setCaseFolding(true, true);
+            offHeap.countWords("reddit_comments_2008.txt");
+            boolean sameCounts = true;
+            for (String word : folded.storageMap.keySet()) {
+                sameCounts &= arena.getCount(word) == folded.getCount(word);
+                sameCounts &= offHeap.getCount(word) == folded.getCount(word);
+            }
+
+            // Verify
+            System.out.println(arena.uniqueWordCount() + " == " + folded.uniqueWordCount());
+            System.out.println(offHeap.uniqueWordCount() + " == " + folded.uniqueWordCount());
+            System.out.println(sameCounts + " == true");
+            System.out.println(arena.getCount("LIKE") + " == " + folded.getCount("like"));
+            System.out.println(offHeap.commonCasing("LIKE") + " == " + folded.commonCasing("like"));
+
+            // Test
+            assert arena.uniqueWordCount() == folded.uniqueWordCount() : "Error in case folding bytes";
+            assert offHeap.uniqueWordCount() == folded.uniqueWordCount() : "Error in case folding bytes";
+            assert sameCounts : "Error in case folding bytes";
+            assert arena.getCount("LIKE") == folded.getCount("like") : "Error in case folding bytes";
+            assert offHeap.commonCasing("LIKE").equals(folded.commonCasing("like")) : "Error in case folding bytes";
+            offHeap.close();
+        }
+
+        /*
+         * Test countWordsForkJoin() gives the same counts as countWords()
+         */
+        {
+            // Setup
+            WordCounter sequential = new WordCounter("hashmap");
+            sequential.countWords("reddit_comments_2015.txt");
+            WordCounter forkJoin = new WordCounter("hashmap");
+            forkJoin.countWordsForkJoin("reddit_comments_2015.txt");
+            boolean sameCounts = true;
+            for (String word : sequential.storageMap.keySet()) {
+                sameCounts &= forkJoin.getCount(word) == sequential.getCount(word);
+            }
+
+            // Verify
+            System.out.println(forkJoin.totalWordCount() + " == " + sequential.totalWordCount());
+            System.out.println(forkJoin.uniqueWordCount() + " == " + sequential.uniqueWordCount());
+            System.out.println(sameCounts + " == true");
+
+            // Test
+            assert forkJoin.totalWordCount() == sequential.totalWordCount() : "Error in countWordsForkJoin()";
+            assert forkJoin.uniqueWordCount() == sequential.uniqueWordCount() : "Error in countWordsForkJoin()";
+            assert sameCounts : "Error in countWordsForkJoin()";
+        }
+
+        /*
+         * Test countWordsForkJoin() gives the same counts as countWords() when the
+         * file is split into many ranges that are merged back together
+         */
+        {
+            // Setup
+            WordCounter sequential = new WordCounter("hashmap");
+            sequential.countWords("reddit_comments_2008.txt");
+            WordCounter forkJoin = new WordCounter("hashmap");
+            forkJoin.countWordsForkJoin("reddit_comments_2008.txt", 16 << 10);
+            boolean sameCounts = true;
+            for (String word : sequential.storageMap.keySet()) {
+                sameCounts &= forkJoin.getCount(word) == sequential.getCount(word);
+            }
+
+            // Verify
+            System.out.println(forkJoin.totalWordCount() + " == " + sequential.totalWordCount());
+            System.out.println(forkJoin.uniqueWordCount() + " == " + sequential.uniqueWordCount());
+            System.out.println(sameCounts + " == true");
+
+            // Test
+            assert forkJoin.totalWordCount() == sequential.totalWordCount() : "Error in countWordsForkJoin() split";
+            assert forkJoin.uniqueWordCount() == sequential.uniqueWordCount() : "Error in countWordsForkJoin() split";
+            assert sameCounts : "Error in countWordsForkJoin() split";
+        }
+
+        /*
+         * Test ParallelWordCounter matches counting the years one at a time
+         */
+        {
+            // Setup
+            ParallelWordCounter parallel = new ParallelWordCounter("hashmap", 2);
+            parallel.countYears(2008, 2010);
+            WordCounter sequential = new WordCounter("hashmap");
+            int totalWords = 0;
+            for (int year = 2008; year <= 2010; year++) {
+                sequential.countWords("reddit_comments_" + year + ".txt");
+                totalWords += sequential.totalWordCount();
+            }
+            WordCounter combined = parallel.getCombined();
+
+            // Verify
+            System.out.println(combined.totalWordCount() + " == " + totalWords);
+            System.out.println(combined.uniqueWordCount() + " == " + sequential.uniqueWordCount());
+            System.out.println(combined.getCount("peace") + " == " + sequential.getCount("peace"));
+            System.out.println((parallel.getYear(2009) != null) + " == true");
+
+            // Test
+            assert combined.totalWordCount() == totalWords : "Error in ParallelWordCounter";
+            assert combined.uniqueWordCount() == sequential.uniqueWordCount() : "Error in ParallelWordCounter";
+            assert combined.getCount("peace") == sequential.getCount("peace") : "Error in ParallelWordCounter";
+            assert parallel.getYear(2009) != null : "Error in ParallelWordCounter";
+        }
+
+        /*
+         * Test counting with ParallelWordCounter again replaces the earlier counts
+         */
+        {
+            // Setup
+            ParallelWordCounter parallel = new ParallelWordCounter("hashmap", 2);
+            parallel.countYears(2008, 2009);
+            parallel.countYears(2009, 2010);
+            WordCounter sequential = new WordCounter("hashmap");
+            sequential.countWords("reddit_comments_2009.txt");
+            WordCounter other = new WordCounter("hashmap");
+            other.countWords("reddit_comments_2010.txt");
+            sequential.merge(other);
+            WordCounter combined = parallel.getCombined();
+
+            // Verify
+            System.out.println(combined.totalWordCount() + " == " + sequential.totalWordCount());
+            System.out.println(combined.getCount("peace") + " == " + sequential.getCount("peace"));
+            System.out.println(parallel.getYear(2008) + " == null");
+
+            // Test
+            assert combined.totalWordCount() == sequential.totalWordCount() : "countYears() adds to earlier counts";
+            assert combined.getCount("peace") == sequential.getCount("peace") : "countYears() adds to earlier counts";
+            assert parallel.getYear(2008) == null : "countYears() keeps earlier years";
+        }
+
+        /*
+         * Test topWords() and mostFrequentWords()
+         */
+        {
+            // Setup
+            WordCounter map = new WordCounter("hashmap");
+            map.countWords("reddit_comments_2008.txt");
+            ArrayList<MapSet.KeyValuePair<String, Integer>> top = map.topWords(100);
+            boolean sorted = true;
+            for (int i = 1; i < top.size(); i++) {
+                sorted &= top.get(i - 1).getValue() >= top.get(i).getValue();
+            }
+            int highest = 0;
+            for (int count : map.storageMap.values()) {
+                highest = Math.max(highest, count);
+            }
+
+            // Verify
+            System.out.println(top.size() + " == 100");
+            System.out.println(sorted + " == true");
+            System.out.println(top.get(0).getValue() + " == " + highest);
+            System.out.println(map.mostFrequentWords().size() + " == 10");
+
+            // Test
+            assert top.size() == 100 : "Error in topWords()";
+            assert sorted : "topWords() not sorted";
+            assert top.get(0).getValue() == highest : "Error in topWords()";
+            assert map.mostFrequentWords().size() == 10 : "Error in mostFrequentWords()";
+        }
+
+        /*
+         * Test liveTopWords() agrees with topWords() halfway through and at the end
+         */
+        {
+            // Setup
+            WordCounter map = new WordCounter("counting");
+            map.trackTopWords(20);
+            map.countWords("reddit_comments_2008.txt");
+            int midRunMin = map.liveTopWords().get(19).getValue();
+            int midRunScanMin = map.topWords(20).get(19).getValue();
+            map.countWords("reddit_comments_2009.txt");
+            ArrayList<MapSet.KeyValuePair<String, Integer>> live = map.liveTopWords();
+            ArrayList<MapSet.KeyValuePair<String, Integer>> scanned = map.topWords(20);
+
+            // Verify
+            System.out.println(midRunMin + " == " + midRunScanMin);
+            System.out.println(live.get(0) + " == " + scanned.get(0));
+            System.out.println(live.get(19).getValue() + " == " + scanned.get(19).getValue());
+
+            // Test
+            assert midRunMin == midRunScanMin : "Error in liveTopWords()";
+            assert live.get(0).toString().equals(scanned.get(0).toString()) : "Error in liveTopWords()";
+            assert live.get(19).getValue().equals(scanned.get(19).getValue()) : "Error in liveTopWords()";
+        }
+
+        /*
+         * Test liveTopWords() breaks ties between equal counts like topWords()
+         */
+        {
+            // Setup
+            WordCounter map = new WordCounter("hashmap");
+            map.trackTopWords(2);
+            map.buildMap(new ArrayList<>(Arrays.asList("cat", "cat", "bat", "bat", "ant", "ant")));
+
+            // Verify
+            System.out.println(map.liveTopWords() + " == " + map.topWords(2));
+
+            // Test
+            assert map.liveTopWords().toString().equals(map.topWords(2).toString()) : "Error in liveTopWords()";
+        }
+
+        /*
+         * Test the sketch never undercounts and stays within its error bound
+         */
+        {
+            // Setup
+            WordCounter exact = new WordCounter("counting");
+            WordCounter exactPartial = new WordCounter("counting");
+            exact.countWords("reddit_comments_2008.txt");
+            exactPartial.countWords("reddit_comments_2009.txt");
+            exact.merge(exactPartial);
+            WordCounter sketch = new WordCounter(1e-3, .01);
+            WordCounter partial = new WordCounter(1e-3, .01);
+            sketch.countWords("reddit_comments_2008.txt");
+            partial.countWords("reddit_comments_2009.txt");
+            sketch.merge(partial);
+
+            int maxError = 0;
+            boolean undercount = false;
+            for (String word : exact.storageMap.keySet()) {
+                int error = sketch.getCount(word) - exact.getCount(word);
+                undercount |= error < 0;
+                maxError = Math.max(maxError, error);
+            }
+
+            // Verify
+            System.out.println(sketch.totalWordCount() + " == " + exact.totalWordCount());
+            System.out.println(undercount + " == false");
+            System.out.println(maxError + " <= " + 1e-3 * exact.totalWordCount());
+            System.out.println(sketch.mostFrequentWords() + " == " + exact.mostFrequentWords());
+
+            // Test
+            assert sketch.totalWordCount() == exact.totalWordCount() : "Error in sketch totalWordCount()";
+            assert !undercount : "Sketch undercounted a word";
+            assert maxError <= 1e-3 * exact.totalWordCount() : "Sketch error above bound";
+            assert sketch.mostFrequentWords().equals(exact.mostFrequentWords()) : "Error in sketch mostFrequentWords()";
+        }
+
+        /*
+         * Test words with the same hashCode() do not share sketch counters, and
+         * counts can be taken back out of a SketchMap
+         */
+        {
+            // Setup
+            CountMinSketch sketch = new CountMinSketch(1e-3, .01);
+            sketch.add("Aa", 5);
+            SketchMap map = new SketchMap(1e-3, .01, 2);
+            map.add("peace", 7);
+            map.add("war", 3);
+            Integer removed = map.remove("peace");
+            Integer lowered = map.compute("war", (word, count) -> count - 1);
+
+            // Verify
+            System.out.println(sketch.estimate("BB") + " == 0");
+            System.out.println(removed + " == 7");
+            System.out.println(map.getCount("peace") + " == 0");
+            System.out.println(lowered + " == 2");
+            System.out.println(map.keySet() + " == [war]");
+
+            // Test
+            assert sketch.estimate("BB") == 0 : "Error in CountMinSketch hash";
+            assert removed == 7 && map.getCount("peace") == 0 : "Error in SketchMap.remove()";
+            assert lowered == 2 && map.getCount("war") == 2 : "Error in SketchMap.compute()";
+            assert map.keySet().toString().equals("[war]") : "Error in SketchMap.remove()";
+        }
+
+        /*
+         * Test the HyperLogLog unique word count is close to the exact count,
+         * for one year and for a range of years
+         */
+        {
+            // Setup
+            ParallelWordCounter exact = new ParallelWordCounter("hashmap", 2);
+            exact.countYears(2008, 2011);
+            ParallelWordCounter sketch = new ParallelWordCounter("sketch", 2);
+            sketch.countYears(2008, 2011);
+            int exactYear = exact.getYear(2008).uniqueWordCount();
+            int sketchYear = sketch.getYear(2008).uniqueWordCount();
+            long exactRange = exact.uniqueWordCount(2009, 2011);
+            long sketchRange = sketch.uniqueWordCount(2009, 2011);
+            int exactAll = exact.getCombined().uniqueWordCount();
+            int sketchAll = sketch.getCombined().uniqueWordCount();
+
+            // Verify
+            System.out.println(sketchYear + " ~= " + exactYear);
+            System.out.println(sketchRange + " ~= " + exactRange);
+            System.out.println(sketchAll + " ~= " + exactAll);
+
+            // Test
+            assert Math.abs(sketchYear - exactYear) <= .03 * exactYear : "Error in HyperLogLog uniqueWordCount()";
+            assert Math.abs(sketchRange - exactRange) <= .03 * exactRange : "Error in uniqueWordCount(firstYear, lastYear)";
+            assert Math.abs(sketchAll - exactAll) <= .03 * exactAll : "Error in merged uniqueWordCount()";
+        }
+
+        /*
+         * Test writeWordCountBinary() and readWordCountBinary() round trip, and a
+         * damaged file is rejected
+         */
+        {
+            // Setup
+            WordCounter map = new WordCounter("hashmap");
+            map.countWords("reddit_comments_2008.txt");
+            WordCounter loaded = new WordCounter("bst");
+            boolean written = false;
+            boolean read = false;
+            boolean damagedRead = true;
+            try {
+                File file = File.createTempFile("counts", ".bin");
+                file.deleteOnExit();
+                written = map.writeWordCountBinary(file.getPath());
+                read = loaded.readWordCountBinary(file.getPath());
+
+                RandomAccessFile damaged = new RandomAccessFile(file, "rw");
+                damaged.seek(damaged.length() / 2);
+                damaged.write(damaged.read() ^ 1);
+                damaged.close();
+                damagedRead = new WordCounter("hashmap").readWordCountBinary(file.getPath());
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            boolean sameCounts = true;
+            for (String word : map.storageMap.keySet()) {
+                sameCounts &= loaded.getCount(word) == map.getCount(word);
+            }
+
+            // Verify
+            System.out.println(written + " == true");
+            System.out.println(read + " == true");
+            System.out.println(loaded.totalWordCount() + " == " + map.totalWordCount());
+            System.out.println(loaded.uniqueWordCount() + " == " + map.uniqueWordCount());
+            System.out.println(sameCounts + " == true");
+            System.out.println(damagedRead + " == false");
+
+            // Test
+            assert written && read : "Error in writeWordCountBinary()";
+            assert loaded.totalWordCount() == map.totalWordCount() : "Error in readWordCountBinary()";
+            assert loaded.uniqueWordCount() == map.uniqueWordCount() : "Error in readWordCountBinary()";
+            assert sameCounts : "Error in readWordCountBinary()";
+            assert !damagedRead : "Damaged file was not rejected";
+        }
+
+        /*
+         * Test the btree backend gives the same counts as the hashmap backend,
+         * including when loaded back from a file written in sorted order
+         */
+        {
+            // Setup
+            WordCounter hashMap = new WordCounter("hashmap");
+            hashMap.countWords("reddit_comments_2008.txt");
+            WordCounter bTree = new WordCounter("btree");
+            bTree.countWords("reddit_comments_2008.txt");
+            WordCounter loaded = new WordCounter("btree");
+            boolean read = false;
+            try {
+                File file = File.createTempFile("counts", ".txt");
+                file.deleteOnExit();
+                hashMap.writeWordCount(file.getPath(), true);
+                read = loaded.readWordCount(file.getPath());
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            boolean sameCounts = true;
+            for (String word : hashMap.storageMap.keySet()) {
+                sameCounts &= bTree.getCount(word) == hashMap.getCount(word)
+                        && loaded.getCount(word) == hashMap.getCount(word);
+            }
+
+            // Verify
+            System.out.println(bTree.uniqueWordCount() + " == " + hashMap.uniqueWordCount());
+            System.out.println(read + " == true");
+            System.out.println(sameCounts + " == true");
+            System.out.println((loaded.storageMap.maxDepth() <= 3) + " == true");
+
+            // Test
+            assert bTree.uniqueWordCount() == hashMap.uniqueWordCount() : "Error in btree backend";
+            assert read : "Error in readWordCount()";
+            assert sameCounts : "Error in btree backend";
+            assert loaded.storageMap.maxDepth() <= 3 : "btree not balanced on sorted input";
+        }
+
+        /*
+         * Test a WordCountIndex answers the same counts as the map it was written from
+         */
+        {
+            // Setup
+            WordCounter map = new WordCounter("counting");
+            map.countWords("reddit_comments_2008.txt");
+            boolean sameCounts = true;
+            int size = 0;
+            int missing = -1;
+            double frequency = 0;
+            try {
+                File file = File.createTempFile("counts", ".idx");
+                file.deleteOnExit();
+                map.writeWordCountIndex(file.getPath());
+                WordCountIndex index = WordCountIndex.open(file.getPath());
+                index.verify();
+                for (String word : map.storageMap.keySet()) {
+                    sameCounts &= index.getCount(word) == map.getCount(word);
+                }
+                size = index.size();
+                missing = index.getCount("notaword");
+                frequency = index.getFrequency("peace");
+                index.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+
+            // Verify
+            System.out.println(sameCounts + " == true");
+            System.out.println(size + " == " + map.uniqueWordCount());
+            System.out.println(missing + " == 0");
+            System.out.println(frequency + " == " + map.getFrequency("peace"));
+
+            // Test
+            assert sameCounts : "Error in WordCountIndex.getCount()";
+            assert size == map.uniqueWordCount() : "Error in WordCountIndex.size()";
+            assert missing == 0 : "Error in WordCountIndex.getCount()";
+            assert frequency == map.getFrequency("peace") : "Error in WordCountIndex.getFrequency()";
+        }
+
+        /*
+         * Test WordCountMerger sums sorted binary and text files like merging the maps
+         */
+        {
+            // Setup
+            WordCounter combined = new WordCounter("counting");
+            ArrayList<String> binaryFiles = new ArrayList<>();
+            ArrayList<String> textFiles = new ArrayList<>();
+            WordCounter fromBinary = new WordCounter("hashmap");
+            WordCounter fromText = new WordCounter("hashmap");
+            int binarySize = 0;
+            int textSize = 0;
+            try {
+                for (int year = 2008; year <= 2011; year++) {
+                    WordCounter counter = new WordCounter("counting");
+                    counter.countWords("reddit_comments_" + year + ".txt");
+                    combined.merge(counter);
+
+                    File binary = File.createTempFile("counts" + year, ".bin");
+                    File text = File.createTempFile("counts" + year, ".txt");
+                    binary.deleteOnExit();
+                    text.deleteOnExit();
+                    counter.writeWordCountBinary(binary.getPath());
+                    counter.writeWordCount(text.getPath(), true);
+                    binaryFiles.add(binary.getPath());
+                    textFiles.add(text.getPath());
+                }
+
+                File mergedBinary = File.createTempFile("merged", ".bin");
+                File mergedText = File.createTempFile("merged", ".txt");
+                mergedBinary.deleteOnExit();
+                mergedText.deleteOnExit();
+                binarySize = WordCountMerger.merge(binaryFiles, mergedBinary.getPath(), true);
+                textSize = WordCountMerger.merge(textFiles, mergedText.getPath(), false);
+                fromBinary.readWordCountBinary(mergedBinary.getPath());
+                fromText.readWordCount(mergedText.getPath());
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            boolean sameCounts = true;
+            for (String word : combined.storageMap.keySet()) {
+                sameCounts &= fromBinary.getCount(word) == combined.getCount(word);
+                sameCounts &= fromText.getCount(word) == combined.getCount(word);
+            }
+
+            // Verify
+            System.out.println(binarySize + " == " + combined.uniqueWordCount());
+            System.out.println(textSize + " == " + combined.uniqueWordCount());
+            System.out.println(fromBinary.totalWordCount() + " == " + combined.totalWordCount());
+            System.out.println(fromText.totalWordCount() + " == " + combined.totalWordCount());
+            System.out.println(sameCounts + " == true");
+
+            // Test
+            assert binarySize == combined.uniqueWordCount() : "Error in WordCountMerger.merge()";
+            assert textSize == combined.uniqueWordCount() : "Error in WordCountMerger.merge()";
+            assert fromBinary.totalWordCount() == combined.totalWordCount() : "Error in WordCountMerger.merge()";
+            assert fromText.totalWordCount() == combined.totalWordCount() : "Error in WordCountMerger.merge()";
+            assert sameCounts : "Error in WordCountMerger.merge()";
+        }
+
+        /*
+         * Test a merge that fails part way leaves no output file behind
+         */
+        {
+            // Setup
+            File mergedBinary = null;
+            File mergedText = null;
+            boolean binaryFailed = false;
+            boolean textFailed = false;
+            try {
+                File unsorted = File.createTempFile("unsorted", ".txt");
+                unsorted.deleteOnExit();
+                FileWriter writer = new FileWriter(unsorted);
+                writer.write("Total number of words: 3\nzebra 1\nant 2\n");
+                writer.close();
+                ArrayList<String> inputs = new ArrayList<>(Arrays.asList(unsorted.getPath()));
+
+                mergedBinary = File.createTempFile("failed", ".bin");
+                mergedText = File.createTempFile("failed", ".txt");
+                mergedBinary.delete();
+                mergedText.delete();
+                try {
+                    WordCountMerger.merge(inputs, mergedBinary.getPath(), true);
+                } catch (IOException e) {
+                    binaryFailed = true;
+                }
+                try {
+                    WordCountMerger.merge(inputs, mergedText.getPath(), false);
+                } catch (IOException e) {
+                    textFailed = true;
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+
+            // Verify
+            System.out.println(binaryFailed + " == true");
+            System.out.println(textFailed + " == true");
+            System.out.println(mergedBinary.exists() + " == false");
+            System.out.println(mergedText.exists() + " == false");
+
+            // Test
+            assert binaryFailed && textFailed : "Error in WordCountMerger.merge() with unsorted input";
+            assert !mergedBinary.exists() : "WordCountMerger.merge() left a partial binary file";
+            assert !mergedText.exists() : "WordCountMerger.merge() left a partial text file";
+        }
+
+        /*
+         * Test a text input with a line that has no count fails with an
+         * IOException naming the line
+         */
+        {
+            // Setup
+            String message = null;
+            try {
+                File malformed = File.createTempFile("malformed", ".txt");
+                malformed.deleteOnExit();
+                FileWriter writer = new FileWriter(malformed);
+                writer.write("Total number of words: 3\nant 2\nzebra\n");
+                writer.close();
+                File merged = File.createTempFile("malformed", ".bin");
+                merged.deleteOnExit();
+                try {
+                    WordCountMerger.merge(new ArrayList<>(Arrays.asList(malformed.getPath())), merged.getPath(), true);
+                } catch (IOException e) {
+                    message = e.getMessage();
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+
+            // Verify
+            System.out.println(message + " == ...: no count on line 3");
+
+            // Test
+            assert message != null && message.endsWith(": no count on line 3")
+                    : "Error in WordCountMerger with a malformed line";
+        }
+
         /*
          * Test readWordCount
          */
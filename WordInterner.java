@@ -0,0 +1,319 @@
+/*
+ * Name: Michael Tenkorang
+ * Class Purpose: Working with the HashMaps and Binary Search Trees
+ */
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Turns ranges of ASCII bytes into Strings, handing back the same String
+ * every time the same word is seen. A String is only created the first time a
+ * word shows up, so tokenizing a file allocates roughly once per distinct word
+ * instead of once per word.
+ *
+ * A case-folding interner treats words that only differ in case as the same
+ * word and hands back one lowercase String for all of them. Case is folded a
+ * character at a time while hashing and comparing, so a word that was seen
+ * before in any casing never allocates a lowered copy.
+ *
+ * An interner can be given a limit on how many words it holds. Once it is
+ * full it forgets every word and starts over, so it keeps up with the words
+ * that are used most often without growing with the whole vocabulary.
+ */
+public class WordInterner {
+
+    private String[] words;
+    private int[] hashes;
+    private int size;
+    private boolean foldCase;
+    private int maxSize;
+
+    public WordInterner(int initialCapacity, boolean foldCase, int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("WordInterner():: maxSize must be positive");
+        }
+        int capacity = 16;
+        while (capacity < initialCapacity) {
+            capacity <<= 1;
+        }
+        words = new String[capacity];
+        hashes = new int[capacity];
+        size = 0;
+        this.foldCase = foldCase;
+        this.maxSize = maxSize;
+    }
+
+    public WordInterner(int initialCapacity, boolean foldCase) {
+        this(initialCapacity, foldCase, Integer.MAX_VALUE);
+    }
+
+    public WordInterner(int initialCapacity) {
+        this(initialCapacity, false);
+    }
+
+    public WordInterner(boolean foldCase) {
+        this(1024, foldCase);
+    }
+
+    public WordInterner() {
+        this(1024, false);
+    }
+
+    /*
+     * Returns the String for the bytes from `start` to `start + length`, creating
+     * it only if this word has not been seen before
+     */
+    public String intern(ByteBuffer buffer, int start, int length) {
+        int hash = foldCase ? foldedHash(buffer, start, length) : hash(buffer, start, length);
+        int index = slot(buffer, start, length, hash);
+
+        if (words[index] != null) {
+            return words[index];
+        }
+
+        String word = foldCase ? toFoldedString(buffer, start, length) : toString(buffer, start, length);
+        add(index, word, hash);
+        return word;
+    }
+
+    /*
+     * Returns the String for the bytes from `start` to `start + length`, or null
+     * if this word has not been seen, without creating anything
+     */
+    public String find(ByteBuffer buffer, int start, int length) {
+        int hash = foldCase ? foldedHash(buffer, start, length) : hash(buffer, start, length);
+        return words[slot(buffer, start, length, hash)];
+    }
+
+    /*
+     * Returns the interned String for a word, adding it (lowercased if this
+     * interner folds case) if it has not been seen before
+     */
+    public String intern(CharSequence word) {
+        int hash = hash(word);
+        int index = slot(word, hash);
+
+        if (words[index] != null) {
+            return words[index];
+        }
+
+        String interned = foldCase ? toFoldedString(word) : word.toString();
+        add(index, interned, hash);
+        return interned;
+    }
+
+    /*
+     * Returns the interned String for a word, or null if it has not been seen
+     */
+    public String find(CharSequence word) {
+        return words[slot(word, hash(word))];
+    }
+
+    /*
+     * Check if this interner treats words that differ only in case as the same
+     */
+    public boolean foldsCase() {
+        return foldCase;
+    }
+
+    /*
+     * Returns the slot holding a word, or the empty slot where it would go
+     */
+    private int slot(CharSequence word, int hash) {
+        int mask = words.length - 1;
+        int index = mix(hash) & mask;
+
+        while (words[index] != null) {
+            if (hashes[index] == hash && matches(words[index], word)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+
+        return index;
+    }
+
+    /*
+     * Returns the slot holding the word in a range of bytes, or the empty slot
+     * where it would go
+     */
+    private int slot(ByteBuffer buffer, int start, int length, int hash) {
+        int mask = words.length - 1;
+        int index = mix(hash) & mask;
+
+        while (words[index] != null) {
+            if (hashes[index] == hash && matches(words[index], buffer, start, length)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+
+        return index;
+    }
+
+    /*
+     * Put a new word in an empty slot and grow the table if needed. A full
+     * interner forgets its words first, keeping its table.
+     */
+    private void add(int index, String word, int hash) {
+        if (size >= maxSize) {
+            Arrays.fill(words, null);
+            size = 0;
+            index = mix(hash) & (words.length - 1);
+        }
+        words[index] = word;
+        hashes[index] = hash;
+        size++;
+        if (size * 2 > words.length) {
+            resize(words.length * 2);
+        }
+    }
+
+    /*
+     * Create a new String from a range of ASCII bytes
+     */
+    static String toString(ByteBuffer buffer, int start, int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    /*
+     * Create a new lowercase String from a range of ASCII bytes
+     */
+    static String toFoldedString(ByteBuffer buffer, int start, int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) IgnoreFilter.fold((char) buffer.get(start + i));
+        }
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    /*
+     * Create a new lowercase String from a word
+     */
+    static String toFoldedString(CharSequence word) {
+        StringBuilder folded = new StringBuilder(word.length());
+        for (int i = 0; i < word.length(); i++) {
+            folded.append(IgnoreFilter.fold(word.charAt(i)));
+        }
+        return folded.toString();
+    }
+
+    /*
+     * Returns the number of distinct words held
+     */
+    public int size() {
+        return size;
+    }
+
+    /*
+     * Forget every word
+     */
+    public void clear() {
+        words = new String[16];
+        hashes = new int[16];
+        size = 0;
+    }
+
+    /*
+     * Same value as String.hashCode() for an ASCII word
+     */
+    static int hash(ByteBuffer buffer, int start, int length) {
+        int hash = 0;
+        for (int i = start; i < start + length; i++) {
+            hash = 31 * hash + buffer.get(i);
+        }
+        return hash;
+    }
+
+    /*
+     * Same value as hash() of the lowercased word
+     */
+    private static int foldedHash(ByteBuffer buffer, int start, int length) {
+        int hash = 0;
+        for (int i = start; i < start + length; i++) {
+            hash = 31 * hash + IgnoreFilter.fold((char) buffer.get(i));
+        }
+        return hash;
+    }
+
+    /*
+     * Same value as String.hashCode(), of the lowercased word if this
+     * interner folds case
+     */
+    private int hash(CharSequence word) {
+        int hash = 0;
+        for (int i = 0; i < word.length(); i++) {
+            hash = 31 * hash + (foldCase ? IgnoreFilter.fold(word.charAt(i)) : word.charAt(i));
+        }
+        return hash;
+    }
+
+    /*
+     * Spread the bits of the hash so the low bits can index the table
+     */
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /*
+     * Check if a String holds the same ASCII characters as a range of bytes,
+     * folding the bytes' case if this interner folds case
+     */
+    private boolean matches(String word, ByteBuffer buffer, int start, int length) {
+        if (word.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = (char) buffer.get(start + i);
+            if (word.charAt(i) != (foldCase ? IgnoreFilter.fold(c) : c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Check if a String holds the same characters as a word, folding the
+     * word's case if this interner folds case
+     */
+    private boolean matches(String word, CharSequence other) {
+        if (word.length() != other.length()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            char c = other.charAt(i);
+            if (word.charAt(i) != (foldCase ? IgnoreFilter.fold(c) : c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Rebuild the table with a new capacity
+     */
+    private void resize(int newCapacity) {
+        String[] oldWords = words;
+        int[] oldHashes = hashes;
+        words = new String[newCapacity];
+        hashes = new int[newCapacity];
+        int mask = newCapacity - 1;
+
+        for (int i = 0; i < oldWords.length; i++) {
+            if (oldWords[i] != null) {
+                int index = mix(oldHashes[i]) & mask;
+                while (words[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                words[index] = oldWords[i];
+                hashes[index] = oldHashes[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Name: Michael Tenkorang
+ * Class Purpose: Working with the HashMaps and Binary Search Trees
+ */
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Splits a file into words by memory mapping it and looking at the raw bytes.
+ *
+ * A word is a run of bytes between spaces or line breaks, and it is only
+ * accepted if every byte is an ASCII letter. This accepts exactly the words
+ * that {@code line.split("[ ]+")} followed by
+ * {@code Pattern.matches("[a-zA-Z]+", ...)} accepts, without creating a String
+ * for every fragment.
+ */
+public class WordTokenizer {
+
+    /**
+     * Receives each accepted word as a range of bytes in a buffer. The range is
+     * only valid for the duration of the call.
+     */
+    public interface WordHandler {
+        public void word(ByteBuffer buffer, int start, int length);
+    }
+
+    /*
+     * Largest part of a file that is mapped at once
+     */
+    private static final int MAX_WINDOW = Integer.MAX_VALUE;
+
+    /*
+     * Tokenize a whole file and return the number of accepted words
+     */
+    public static long tokenize(String filename, WordHandler handler) throws IOException {
+        FileInputStream input = new FileInputStream(filename);
+
+        try {
+            FileChannel channel = input.getChannel();
+            return tokenize(channel, 0, channel.size(), handler);
+        } finally {
+            input.close();
+        }
+    }
+
+    /*
+     * Tokenize the bytes from `from` (inclusive) to `to` (exclusive) of a file.
+     * Both ends should sit on a word boundary.
+     */
+    public static long tokenize(FileChannel channel, long from, long to, WordHandler handler) throws IOException {
+        long wordCount = 0;
+        long position = from;
+
+        while (position < to) {
+            long windowSize = Math.min(to - position, MAX_WINDOW);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, windowSize);
+            int end = (int) windowSize;
+
+            if (position + windowSize < to) {
+                end = lastBoundary(buffer, end);
+                if (end == 0) {
+                    // a run of bytes this long could not be held in a String anyway
+                    end = (int) windowSize;
+                }
+            }
+
+            wordCount += tokenize(buffer, 0, end, handler);
+            position += end;
+        }
+
+        return wordCount;
+    }
+
+    /*
+     * Tokenize the bytes from `start` (inclusive) to `end` (exclusive) of a buffer
+     */
+    public static long tokenize(ByteBuffer buffer, int start, int end, WordHandler handler) {
+        long wordCount = 0;
+        int wordStart = start;
+        boolean valid = true;
+
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            if (isDelimiter(b)) {
+                if (valid && i > wordStart) {
+                    handler.word(buffer, wordStart, i - wordStart);
+                    wordCount++;
+                }
+                wordStart = i + 1;
+                valid = true;
+            } else if (!isLetter(b)) {
+                valid = false;
+            }
+        }
+
+        if (valid && end > wordStart) {
+            handler.word(buffer, wordStart, end - wordStart);
+            wordCount++;
+        }
+
+        return wordCount;
+    }
+
+    /*
+     * Returns the position just after the last delimiter before `end`, or 0 if
+     * there is none
+     */
+    private static int lastBoundary(ByteBuffer buffer, int end) {
+        for (int i = end - 1; i >= 0; i--) {
+            if (isDelimiter(buffer.get(i))) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    /*
+     * Spaces split words on a line, and readLine() splits lines on \n and \r
+     */
+    static boolean isDelimiter(byte b) {
+        return b == ' ' || b == '\n' || b == '\r';
+    }
+
+    /*
+     * Check if a byte is in [a-zA-Z]. Bytes of multi-byte UTF-8 characters are
+     * all negative, so they are never letters.
+     */
+    static boolean isLetter(byte b) {
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z');
+    }
+}
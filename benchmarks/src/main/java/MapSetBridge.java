@@ -0,0 +1,106 @@
+/*
+ * Name: Michael Tenkorang
+ * Class Purpose: Working with the HashMaps and Binary Search Trees
+ */
+
+import benchmarks.MapSetTarget;
+import java.io.File;
+import java.util.ArrayList;
+
+/**
+ * Runs the benchmarks' operations on the default package's maps. See
+ * MapSetTarget for why this class exists.
+ */
+public class MapSetBridge implements MapSetTarget {
+
+    private MapSet<String, Integer> map;
+    private ConcurrentCountingMap striped;
+    private CountingHashMap<String> locked;
+    private WordCounter counter;
+
+    @Override
+    public void newMap(String dataStructure) {
+        if (dataStructure.equals("bst")) {
+            map = new BSTMap<String, Integer>();
+        } else if (dataStructure.equals("hashmap")) {
+            map = new HashMap<String, Integer>();
+        } else if (dataStructure.equals("avl")) {
+            map = new AVLTreeMap<String, Integer>();
+        } else if (dataStructure.equals("btree")) {
+            map = new BTreeMap<String, Integer>();
+        } else {
+            throw new IllegalArgumentException("MapSetBridge.newMap():: unknown data structure " + dataStructure);
+        }
+    }
+
+    @Override
+    public Integer put(String key, Integer value) {
+        return map.put(key, value);
+    }
+
+    @Override
+    public Integer get(String key) {
+        return map.get(key);
+    }
+
+    @Override
+    public boolean containsKey(String key) {
+        return map.containsKey(key);
+    }
+
+    @Override
+    public Integer remove(String key) {
+        return map.remove(key);
+    }
+
+    @Override
+    public int entrySet() {
+        return map.entrySet().size();
+    }
+
+    @Override
+    public void newCountingMap(String kind) {
+        striped = null;
+        locked = null;
+        if (kind.equals("sharded")) {
+            striped = new ConcurrentCountingMap();
+        } else if (kind.equals("striped")) {
+            striped = new ConcurrentCountingMap(64, 0);
+        } else if (kind.equals("synchronized")) {
+            locked = new CountingHashMap<String>();
+        } else {
+            throw new IllegalArgumentException("MapSetBridge.newCountingMap():: unknown counting map " + kind);
+        }
+    }
+
+    @Override
+    public void add(String key, int delta) {
+        if (striped != null) {
+            striped.increment(key, delta);
+            return;
+        }
+        synchronized (locked) {
+            locked.add(key, delta);
+        }
+    }
+
+    @Override
+    public void newWordCounter(String dataStructure) {
+        counter = new WordCounter(dataStructure);
+    }
+
+    @Override
+    public int buildMap(ArrayList<String> words) {
+        counter.buildMap(words);
+        return counter.uniqueWordCount();
+    }
+
+    @Override
+    public ArrayList<String> readWords(String filename) {
+        if (!new File(filename).isFile()) {
+            throw new IllegalStateException("MapSetBridge.readWords():: no corpus file " + filename
+                    + ", pass one with -p corpusFile=<path>");
+        }
+        return new WordCounter("hashmap").readWords(filename);
+    }
+}
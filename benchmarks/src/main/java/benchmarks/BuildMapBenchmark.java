@@ -0,0 +1,70 @@
+/*
+ * Name: Michael Tenkorang
+ * Class Purpose: Working with the HashMaps and Binary Search Trees
+ */
+
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time of a whole WordCounter.buildMap() run, counting a list of words into a
+ * new, empty WordCounter, which is what the millisecond value buildMap()
+ * returns measures.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = "-Xss64m")
+public class BuildMapBenchmark {
+
+    @Param({ "bst", "hashmap", "avl", "btree" })
+    public String map;
+
+    @Param({ "zipf", "sorted", "corpus" })
+    public String keys;
+
+    @Param({ "10000" })
+    public int distinct;
+
+    @Param({ "1000000" })
+    public int words;
+
+    @Param({ "reddit_comments_2008.txt" })
+    public String corpusFile;
+
+    private MapSetTarget target;
+    private ArrayList<String> stream;
+
+    @Setup
+    public void setup() {
+        target = MapSetTarget.load();
+        stream = new ArrayList<>(Arrays.asList(KeyStreams.stream(keys, distinct, words, corpusFile, target)));
+    }
+
+    @Setup(Level.Invocation)
+    public void newWordCounter() {
+        target.newWordCounter(map);
+    }
+
+    @Benchmark
+    public int buildMap() {
+        return target.buildMap(stream);
+    }
+}
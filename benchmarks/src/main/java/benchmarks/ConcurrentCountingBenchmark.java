@@ -0,0 +1,106 @@
+/*
+ * Name: Michael Tenkorang
+ * Class Purpose: Working with the HashMaps and Binary Search Trees
+ */
+
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time for `threads` threads to count a stream of words into one shared map,
+ * each thread adding its own slice of the stream. Compares the
+ * ConcurrentCountingMap, with and without sharding its hot words, against a
+ * CountingHashMap behind a single lock, from 1 to 32 threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class ConcurrentCountingBenchmark {
+
+    @Param({ "1", "2", "4", "8", "16", "32" })
+    public int threads;
+
+    @Param({ "sharded", "striped", "synchronized" })
+    public String map;
+
+    @Param({ "zipf", "corpus" })
+    public String keys;
+
+    @Param({ "10000" })
+    public int distinct;
+
+    @Param({ "1000000" })
+    public int words;
+
+    @Param({ "reddit_comments_2008.txt" })
+    public String corpusFile;
+
+    private MapSetTarget target;
+    private String[] stream;
+    private ExecutorService executor;
+
+    @Setup
+    public void setup() {
+        target = MapSetTarget.load();
+        stream = KeyStreams.stream(keys, distinct, words, corpusFile, target);
+        executor = Executors.newFixedThreadPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Setup(Level.Invocation)
+    public void newCountingMap() {
+        target.newCountingMap(map);
+    }
+
+    @Benchmark
+    public long count() throws InterruptedException, ExecutionException {
+        ArrayList<Future<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            int from = (int) ((long) stream.length * i / threads);
+            int to = (int) ((long) stream.length * (i + 1) / threads);
+            futures.add(executor.submit(() -> countSlice(from, to)));
+        }
+
+        long total = 0;
+        for (Future<Integer> future : futures) {
+            total += future.get();
+        }
+        return total;
+    }
+
+    /*
+     * Add every word from `from` to `to` of the stream to the shared map
+     */
+    private int countSlice(int from, int to) {
+        for (int i = from; i < to; i++) {
+            target.add(stream[i], 1);
+        }
+        return to - from;
+    }
+}
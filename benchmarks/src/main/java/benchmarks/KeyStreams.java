@@ -0,0 +1,90 @@
+/*
+ * Name: Michael Tenkorang
+ * Class Purpose: Working with the HashMaps and Binary Search Trees
+ */
+
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+
+/**
+ * Streams of words for the benchmarks. Every stream is the same from run to
+ * run, so results can be compared across data structures and commits.
+ *
+ * "zipf" draws words from a vocabulary of random lowercase words with Zipf's
+ * law (the k-th most common word appears about 1/k as often as the most
+ * common one), which is roughly how words in comments are spread. "sorted" is
+ * the same stream sorted, the worst case for an unbalanced tree. "corpus" is
+ * the first words of a real comment file, read the way WordCounter reads it.
+ */
+public final class KeyStreams {
+
+    private static final long SEED = 42;
+
+    private KeyStreams() {
+    }
+
+    /*
+     * Returns `length` words of the named stream
+     */
+    public static String[] stream(String keys, int distinct, int length, String corpusFile, MapSetTarget target) {
+        if (keys.equals("zipf")) {
+            return zipf(distinct, length);
+        } else if (keys.equals("sorted")) {
+            String[] words = zipf(distinct, length);
+            Arrays.sort(words);
+            return words;
+        } else if (keys.equals("corpus")) {
+            ArrayList<String> words = target.readWords(corpusFile);
+            return words.subList(0, Math.min(length, words.size())).toArray(new String[0]);
+        }
+        throw new IllegalArgumentException("KeyStreams.stream():: unknown key stream " + keys);
+    }
+
+    /*
+     * Draw `length` words from `distinct` random words with Zipf's law
+     */
+    public static String[] zipf(int distinct, int length) {
+        Random random = new Random(SEED);
+        String[] vocabulary = vocabulary(distinct, random);
+
+        double[] cumulative = new double[distinct];
+        double total = 0;
+        for (int rank = 0; rank < distinct; rank++) {
+            total += 1.0 / (rank + 1);
+            cumulative[rank] = total;
+        }
+
+        String[] words = new String[length];
+        for (int i = 0; i < length; i++) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+            words[i] = vocabulary[rank < 0 ? Math.min(-rank - 1, distinct - 1) : rank];
+        }
+        return words;
+    }
+
+    /*
+     * Make `distinct` different lowercase words of 2 to 12 letters
+     */
+    private static String[] vocabulary(int distinct, Random random) {
+        HashSet<String> seen = new HashSet<>();
+        String[] vocabulary = new String[distinct];
+        char[] letters = new char[12];
+
+        int count = 0;
+        while (count < distinct) {
+            int length = 2 + random.nextInt(11);
+            for (int i = 0; i < length; i++) {
+                letters[i] = (char) ('a' + random.nextInt(26));
+            }
+            String word = new String(letters, 0, length);
+            if (seen.add(word)) {
+                vocabulary[count++] = word;
+            }
+        }
+        return vocabulary;
+    }
+}
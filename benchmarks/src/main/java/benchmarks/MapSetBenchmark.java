@@ -0,0 +1,111 @@
+/*
+ * Name: Michael Tenkorang
+ * Class Purpose: Working with the HashMaps and Binary Search Trees
+ */
+
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time of single MapSet operations on a map that already holds every word of
+ * the key stream, inserted in stream order. Each call works on the next word
+ * of the stream, so the mix of common and rare words follows the stream.
+ *
+ * The -Xss is for the "bst" map on the "sorted" stream: BSTMap does not
+ * balance, so sorted words make it one long branch, and its get() and
+ * containsKey() recurse once per level.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Xss64m")
+public class MapSetBenchmark {
+
+    private static final int STREAM_LENGTH = 1 << 16;
+
+    @Param({ "bst", "hashmap", "avl", "btree" })
+    public String map;
+
+    @Param({ "zipf", "sorted", "corpus" })
+    public String keys;
+
+    @Param({ "10000" })
+    public int distinct;
+
+    @Param({ "reddit_comments_2008.txt" })
+    public String corpusFile;
+
+    private MapSetTarget target;
+    private String[] stream;
+    private int next;
+
+    @Setup
+    public void setup() {
+        target = MapSetTarget.load();
+        stream = KeyStreams.stream(keys, distinct, STREAM_LENGTH, corpusFile, target);
+        target.newMap(map);
+        for (String word : stream) {
+            target.put(word, 1);
+        }
+        next = 0;
+    }
+
+    /*
+     * Returns the next word of the stream, starting over at the end
+     */
+    private String nextWord() {
+        String word = stream[next];
+        next = next + 1 == stream.length ? 0 : next + 1;
+        return word;
+    }
+
+    /*
+     * put() of a word already in the map, which replaces its count
+     */
+    @Benchmark
+    public Integer put() {
+        return target.put(nextWord(), 1);
+    }
+
+    @Benchmark
+    public Integer get() {
+        return target.get(nextWord());
+    }
+
+    @Benchmark
+    public boolean containsKey() {
+        return target.containsKey(nextWord());
+    }
+
+    /*
+     * remove() of a word followed by a put() to add it back, so the map stays
+     * the same size from call to call
+     */
+    @Benchmark
+    public Integer removeAndPut() {
+        String word = nextWord();
+        Integer count = target.remove(word);
+        target.put(word, count);
+        return count;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int entrySet() {
+        return target.entrySet();
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Name: Michael Tenkorang
+ * Class Purpose: Working with the HashMaps and Binary Search Trees
+ */
+
+package benchmarks;
+
+import java.util.ArrayList;
+
+/**
+ * The operations the benchmarks run on the word counter's maps. The maps live
+ * in the default package, which JMH benchmarks cannot be in and named packages
+ * cannot import, so the benchmarks call them through this interface. It is
+ * implemented by MapSetBridge in the default package and loaded by name once.
+ * Each JMH fork only ever sees one data structure, so the calls stay
+ * monomorphic and are inlined like direct calls.
+ */
+public interface MapSetTarget {
+
+    /**
+     * Replaces the map with a new empty one.
+     *
+     * @param dataStructure "bst", "hashmap", "avl" or "btree"
+     */
+    public void newMap(String dataStructure);
+
+    /**
+     * Calls put() on the map.
+     */
+    public Integer put(String key, Integer value);
+
+    /**
+     * Calls get() on the map.
+     */
+    public Integer get(String key);
+
+    /**
+     * Calls containsKey() on the map.
+     */
+    public boolean containsKey(String key);
+
+    /**
+     * Calls remove() on the map.
+     */
+    public Integer remove(String key);
+
+    /**
+     * Calls entrySet() on the map.
+     *
+     * @return the number of pairs in the entry set
+     */
+    public int entrySet();
+
+    /**
+     * Replaces the counting map with a new empty one that any thread can add
+     * to.
+     *
+     * @param kind "sharded" for a ConcurrentCountingMap, "striped" for one
+     *             that never makes words hot, or "synchronized" for a
+     *             CountingHashMap behind a single lock
+     */
+    public void newCountingMap(String kind);
+
+    /**
+     * Adds to the count of a word in the counting map. Safe to call from many
+     * threads.
+     */
+    public void add(String key, int delta);
+
+    /**
+     * Replaces the WordCounter with a new empty one.
+     *
+     * @param dataStructure any data structure WordCounter accepts
+     */
+    public void newWordCounter(String dataStructure);
+
+    /**
+     * Calls buildMap() on the WordCounter.
+     *
+     * @return the number of unique words counted
+     */
+    public int buildMap(ArrayList<String> words);
+
+    /**
+     * Reads the words of a file the way WordCounter.readWords() does.
+     *
+     * @throws IllegalStateException if the file cannot be read
+     */
+    public ArrayList<String> readWords(String filename);
+
+    /**
+     * Loads the MapSetBridge from the default package.
+     */
+    public static MapSetTarget load() {
+        try {
+            return (MapSetTarget) Class.forName("MapSetBridge").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("MapSetTarget.load():: cannot create MapSetBridge", e);
+        }
+    }
+}